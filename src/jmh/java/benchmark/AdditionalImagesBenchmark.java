@@ -0,0 +1,73 @@
+package benchmark;
+
+import entity.AdditionalImage;
+import entity.Product;
+import importer.AdditionalImageIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attaching additional images to products: the SKU index used by Importer against the nested loop it
+ * replaced. The nested loop is quadratic, so it runs on smaller catalogs only.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AdditionalImagesBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Indexed {
+
+        @Param({"10000", "100000", "1000000"})
+        public int products;
+
+        private List<Product> productList;
+        private List<AdditionalImage> images;
+
+        @Setup
+        public void setUp() {
+            productList = SyntheticCatalog.products(products);
+            images = SyntheticCatalog.additionalImages(products, 2);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Nested {
+
+        @Param({"1000", "10000"})
+        public int products;
+
+        private List<Product> productList;
+        private List<AdditionalImage> images;
+
+        @Setup
+        public void setUp() {
+            productList = SyntheticCatalog.products(products);
+            images = SyntheticCatalog.additionalImages(products, 2);
+        }
+    }
+
+    @Benchmark
+    public void index(Indexed state, Blackhole blackhole) {
+        AdditionalImageIndex index = new AdditionalImageIndex(state.images);
+        for (Product product : state.productList) {
+            for (AdditionalImage image : index.get(product.getSKU())) {
+                blackhole.consume(image.getFile());
+            }
+        }
+    }
+
+    @Benchmark
+    public int legacy(Nested state) {
+        return Legacy.addAdditionalImagesToProducts(state.productList, state.images);
+    }
+}
@@ -0,0 +1,54 @@
+package benchmark;
+
+import entity.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Category path of a product, time per product: {@link Product#getCategories()} against joining the list of
+ * folder names on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CategoryBenchmark {
+
+    private static final int PRODUCTS = 10000;
+
+    private List<Product> products;
+    private List<List<String>> folderNames;
+
+    @Setup
+    public void setUp() {
+        products = SyntheticCatalog.products(PRODUCTS);
+        folderNames = new ArrayList<>(PRODUCTS);
+        products.forEach(product -> folderNames.add(new ArrayList<>(product.getRawCategories())));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PRODUCTS)
+    public void getCategories(Blackhole blackhole) {
+        for (Product product : products) {
+            blackhole.consume(product.getCategories());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PRODUCTS)
+    public void legacy(Blackhole blackhole) {
+        for (List<String> names : folderNames) {
+            blackhole.consume(Legacy.getCategories(names));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package benchmark;
+
+import importer.CopyMethod;
+import importer.CopyStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Export of a folder of images with every {@link CopyMethod} except AUTO, which picks one of the others.
+ * Source and target folders are in the temporary folder, so they share a file store and LINK works. Every
+ * invocation replaces the targets of the previous one, as a repeated export does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CopyStrategyBenchmark {
+
+    private static final int FILES = 200;
+
+    @Param({"COPY", "LINK", "TRANSFER"})
+    public CopyMethod method;
+
+    @Param({"65536", "1048576"})
+    public int fileBytes;
+
+    private Path directory;
+    private Path images;
+    private CopyStrategy strategy;
+    private final List<Path> sources = new ArrayList<>(FILES);
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("copy-benchmark");
+        Path catalog = Files.createDirectory(directory.resolve("catalog"));
+        images = Files.createDirectory(directory.resolve("images"));
+        Random random = new Random(SyntheticCatalog.SEED);
+        byte[] content = new byte[fileBytes];
+        for (int i = 0; i < FILES; i++) {
+            random.nextBytes(content);
+            sources.add(Files.write(catalog.resolve(SyntheticCatalog.sku(i) + " 1 x photo.jpg"), content));
+        }
+        strategy = method.createStrategy();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void export() throws IOException {
+        for (int i = 0; i < FILES; i++) {
+            strategy.copy(sources.get(i), images.resolve(SyntheticCatalog.sku(i) + ".jpg"));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package benchmark;
+
+import entity.Product;
+import importer.CsvWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * products.csv generation: rows streamed through {@link CsvWriter} as Importer writes them, against building
+ * the whole file in a StringBuilder. Both write to a temporary file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CsvBenchmark {
+
+    private static final String URL_PREFIX = "https://example.com/images/";
+    private static final String HEADER = "Type, sku, Regular price, Attribute 1 name, Attribute 1 value(s), Categories, Name, Images, Description";
+
+    @Param({"10000", "100000", "1000000"})
+    public int products;
+
+    private List<Product> productList;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        productList = SyntheticCatalog.products(products);
+        file = Files.createTempFile("products", ".csv");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void csvWriter() throws IOException {
+        try (CsvWriter writer = new CsvWriter(file)) {
+            writer.writeLine(HEADER);
+            for (Product product : productList) {
+                writer.writeRow(
+                        "virtual",
+                        product.getSKU(),
+                        product.getWeight(),
+                        "Вес",
+                        product.getWeight(),
+                        product.getCategories(),
+                        product.getName() + " (" + product.getSKU() + ")",
+                        URL_PREFIX + product.getImageName(),
+                        product.getDescription());
+            }
+        }
+    }
+
+    @Benchmark
+    public void legacy() throws IOException {
+        Legacy.saveProductsToCSV(productList, URL_PREFIX, file);
+    }
+}
@@ -0,0 +1,56 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import util.FileName;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * File name parsing of the catalog scan: {@link FileName} against the split based code of readProducts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FileNameBenchmark {
+
+    @Param({"10000", "100000"})
+    public int products;
+
+    private List<String> names;
+
+    @Setup
+    public void setUp() {
+        names = SyntheticCatalog.fileNames(products, 2);
+    }
+
+    @Benchmark
+    public void fileName(Blackhole blackhole) {
+        for (String name : names) {
+            FileName fileName = FileName.parse(name);
+            if (!fileName.isImage()) {
+                continue;
+            }
+            blackhole.consume(fileName.getSku());
+            if (fileName.isProduct()) {
+                blackhole.consume(fileName.getWeight());
+                blackhole.consume(fileName.getDescription());
+            }
+        }
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(Legacy.parse(name));
+        }
+    }
+}
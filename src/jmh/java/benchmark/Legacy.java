@@ -0,0 +1,151 @@
+package benchmark;
+
+import entity.AdditionalImage;
+import entity.Product;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The original implementations of the benchmarked code, kept as the baseline. Logging is replaced by counting
+ * the messages that would have been printed.
+ */
+public final class Legacy {
+
+    private static final List<String> SUPPORTED_EXTENSIONS = Arrays.asList("jpg", "png", "jpeg");
+
+    private Legacy() {
+    }
+
+    /**
+     * File name part of readProducts: returns {sku} for an additional image, {sku, weight, description}
+     * for a product and null for other files.
+     */
+    public static String[] parse(String fileName) {
+        String fileExtension = fileName.split("\\.")[1];
+        if (!SUPPORTED_EXTENSIONS.contains(fileExtension.toLowerCase())) {
+            return null;
+        }
+        if (fileName.split(" ").length <= 1) {
+            if (fileName.contains("_")) {
+                return new String[]{fileName.split("_")[0]};
+            }
+            return new String[]{fileName.split("\\.")[0]};
+        }
+        List<String> info = Arrays.asList(fileName.split(" "));
+        StringBuilder description = new StringBuilder();
+        for (int i = 3; i < info.size(); i++) {
+            description.append(info.get(i)).append(" ");
+        }
+        return new String[]{info.get(0), info.get(1).replace(",", "."), description.toString().split("\\.")[0].trim()};
+    }
+
+    public static String resolveName(Map<String, String> names, String sku) {
+        String[] name = new String[1];
+        names.keySet().forEach(key -> {
+            if (sku.startsWith(key)) {
+                name[0] = names.get(key);
+            }
+        });
+        return name[0] == null ? "Unknown" : name[0];
+    }
+
+    public static int addAdditionalImagesToProducts(List<Product> products, List<AdditionalImage> images) {
+        int[] added = new int[1];
+        products.forEach(product -> {
+            images.stream().filter(image -> image.getSKU().equals(product.getSKU())).forEach(image -> added[0]++);
+        });
+        return added[0];
+    }
+
+    public static int checkProducts(List<Product> products) {
+        int[] warnings = new int[1];
+        products.forEach(product -> {
+            try {
+                Float.parseFloat(product.getWeight().trim());
+            } catch (NumberFormatException e) {
+                warnings[0]++;
+            }
+        });
+        return warnings[0] + checkSKUsUnique(products);
+    }
+
+    public static int checkSKUsUnique(List<Product> products) {
+        int[] warnings = new int[1];
+        List<String> uniqueSKUs = new ArrayList<>();
+        products.forEach(product -> {
+            String sku = product.getSKU();
+            if (!uniqueSKUs.contains(sku)) {
+                uniqueSKUs.add(sku);
+            } else {
+                warnings[0]++;
+            }
+        });
+        return warnings[0];
+    }
+
+    public static int checkImages(List<Product> products, List<Path> files) {
+        List<String> skus = files.stream().map(file ->
+                file.getFileName()
+                        .toString()
+                        .split("\\.")[0]
+                        .toLowerCase(new Locale("ru", "RU")))
+                .collect(Collectors.toList());
+        List<String> productSkus = products
+                .stream()
+                .map(product -> product.getSKU().toLowerCase(new Locale("ru", "RU")))
+                .collect(Collectors.toList());
+        int[] errors = new int[1];
+        productSkus.forEach(productSku -> {
+            if (!skus.contains(productSku)) {
+                errors[0]++;
+            }
+        });
+        return errors[0];
+    }
+
+    public static String getCategories(List<String> categories) {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        for (int i = categories.size() - 1; i >= 0; i--) {
+            if (i != 0) {
+                stringBuilder.append(categories.get(i)).append(" > ");
+            } else {
+                stringBuilder.append(categories.get(i));
+            }
+        }
+        return stringBuilder.toString();
+    }
+
+    public static void saveProductsToCSV(List<Product> products, String urlPrefix, Path file) throws IOException {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append("Type, sku, Regular price, Attribute 1 name, Attribute 1 value(s), Categories, Name, Images, Description\n");
+        products.forEach(product -> {
+            stringBuilder
+                    .append("virtual")
+                    .append(",")
+                    .append(product.getSKU())
+                    .append(",").append(product.getWeight())
+                    .append(",").append("Вес,")
+                    .append(product.getWeight())
+                    .append(",")
+                    .append(getCategories(product.getRawCategories()))
+                    .append(",")
+                    .append(product.getName()).append(" (").append(product.getSKU()).append(")")
+                    .append(",").append(urlPrefix).append(product.getSKU()).append(".").append(product.getFileExtension())
+                    .append(",")
+                    .append(product.getDescription())
+                    .append("\n");
+        });
+        Files.write(file, stringBuilder.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+}
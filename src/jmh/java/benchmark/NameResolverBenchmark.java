@@ -0,0 +1,59 @@
+package benchmark;
+
+import importer.NameResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Name lookup by SKU prefix, time per SKU: the {@link NameResolver} trie against scanning every entry of
+ * names.txt.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NameResolverBenchmark {
+
+    private static final int SKUS = 1000;
+
+    @Param({"100", "5000", "50000"})
+    public int names;
+
+    private Map<String, String> nameMap;
+    private NameResolver resolver;
+    private List<String> skus;
+
+    @Setup
+    public void setUp() {
+        nameMap = SyntheticCatalog.names(names);
+        resolver = new NameResolver(nameMap);
+        skus = SyntheticCatalog.skus(SKUS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SKUS)
+    public void resolver(Blackhole blackhole) {
+        for (String sku : skus) {
+            blackhole.consume(resolver.resolve(sku));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SKUS)
+    public void legacy(Blackhole blackhole) {
+        for (String sku : skus) {
+            blackhole.consume(Legacy.resolveName(nameMap, sku));
+        }
+    }
+}
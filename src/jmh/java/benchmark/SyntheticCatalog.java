@@ -0,0 +1,147 @@
+package benchmark;
+
+import entity.AdditionalImage;
+import entity.Category;
+import entity.Product;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic inputs for the benchmarks. The same size always gives the same data, so results of different
+ * builds can be compared. About 1% of the products have a wrong weight and 1% repeat an earlier SKU.
+ */
+public final class SyntheticCatalog {
+
+    public static final long SEED = 20201031L;
+    public static final Path ROOT = Paths.get("catalog");
+
+    private static final String[] WORDS = {
+            "red", "green", "blue", "large", "small", "cotton", "steel", "oak", "glass", "round",
+            "square", "classic", "modern", "soft", "hard", "light", "dark", "mini", "maxi", "set"
+    };
+    private static final String[] CATEGORIES = {
+            "Kitchen", "Garden", "Tools", "Toys", "Lighting", "Textile", "Furniture", "Decor", "Office", "Outdoor"
+    };
+
+    private SyntheticCatalog() {
+    }
+
+    public static String sku(int i) {
+        return "" + (char) ('A' + i % 26) + (char) ('A' + i / 26 % 26) + (100000 + i);
+    }
+
+    /**
+     * Product files and additional images of {@code products} products, in a fixed random order.
+     */
+    public static List<String> fileNames(int products, int imagesPerProduct) {
+        Random random = new Random(SEED);
+        List<String> names = new ArrayList<>(products * (1 + imagesPerProduct));
+        for (int i = 0; i < products; i++) {
+            names.add(productFileName(sku(i), random));
+            for (int n = 1; n <= imagesPerProduct; n++) {
+                names.add(sku(i) + "_" + n + (random.nextInt(10) == 0 ? ".JPG" : ".jpg"));
+            }
+        }
+        Collections.shuffle(names, random);
+        return names;
+    }
+
+    public static List<Product> products(int size) {
+        Random random = new Random(SEED);
+        Category root = Category.root();
+        List<Product> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int index = i > 0 && random.nextInt(100) == 0 ? random.nextInt(i) : i;
+            Category category = root;
+            int depth = 1 + random.nextInt(4);
+            for (int level = 0; level < depth; level++) {
+                category = category.child(CATEGORIES[random.nextInt(CATEGORIES.length)] + " " + level);
+            }
+            Product product = new Product();
+            product.setSKU(sku(index));
+            product.setWeight(random.nextInt(100) == 0 ? "n/a" : random.nextInt(100) + "." + random.nextInt(10));
+            product.setDescription(description(random));
+            product.setName("Product " + index);
+            product.setCategory(category);
+            product.setFile(ROOT.resolve(product.getSKU() + " " + product.getWeight() + " x " + product.getDescription() + ".jpg"));
+            products.add(product);
+        }
+        return products;
+    }
+
+    /**
+     * Additional images for every second product, plus a few that belong to no product.
+     */
+    public static List<AdditionalImage> additionalImages(int products, int imagesPerProduct) {
+        List<AdditionalImage> images = new ArrayList<>();
+        for (int i = 0; i < products + products / 100; i += 2) {
+            for (int n = 1; n <= imagesPerProduct; n++) {
+                AdditionalImage image = new AdditionalImage();
+                image.setSKU(sku(i));
+                image.setFile(ROOT.resolve(sku(i) + "_" + n + ".jpg"));
+                images.add(image);
+            }
+        }
+        return images;
+    }
+
+    /**
+     * Exported image files for all but every fiftieth product.
+     */
+    public static List<Path> imageFiles(List<Product> products) {
+        List<Path> files = new ArrayList<>(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            if (i % 50 != 0) {
+                files.add(Paths.get("images", products.get(i).getImageName()));
+            }
+        }
+        return files;
+    }
+
+    /**
+     * SKU prefixes of names.txt: two letters followed by one to three digits of the number.
+     */
+    public static Map<String, String> names(int size) {
+        Random random = new Random(SEED);
+        Map<String, String> names = new LinkedHashMap<>();
+        while (names.size() < size) {
+            String sku = sku(random.nextInt(26 * 26 * 1000));
+            String prefix = sku.substring(0, 3 + random.nextInt(4));
+            names.putIfAbsent(prefix, "Name of " + prefix);
+        }
+        return names;
+    }
+
+    public static List<String> skus(int size) {
+        Random random = new Random(SEED + 1);
+        List<String> skus = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            skus.add(sku(random.nextInt(26 * 26 * 1000)));
+        }
+        return skus;
+    }
+
+    private static String productFileName(String sku, Random random) {
+        String weight = random.nextInt(100) + (random.nextBoolean() ? "," : ".") + random.nextInt(10);
+        return sku + " " + weight + " x " + description(random) + (random.nextInt(10) == 0 ? ".PNG" : ".jpg");
+    }
+
+    private static String description(Random random) {
+        StringBuilder description = new StringBuilder();
+        int words = 1 + random.nextInt(5);
+        for (int i = 0; i < words; i++) {
+            if (i != 0) {
+                description.append(' ');
+            }
+            description.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return description.toString();
+    }
+}
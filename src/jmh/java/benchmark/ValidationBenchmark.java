@@ -0,0 +1,82 @@
+package benchmark;
+
+import entity.Product;
+import importer.CatalogValidator;
+import importer.ValidationReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Weight, SKU and image checks: {@link CatalogValidator} against checkProducts, checkSKUsUnique and
+ * checkImages with their list lookups. The list based checks are quadratic and run on smaller catalogs only.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ValidationBenchmark {
+
+    public static class Catalog {
+
+        List<Product> productList;
+        List<Path> imageFiles;
+        final CatalogValidator validator = new CatalogValidator();
+
+        void create(int size) {
+            productList = SyntheticCatalog.products(size);
+            imageFiles = SyntheticCatalog.imageFiles(productList);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Large extends Catalog {
+
+        @Param({"10000", "100000", "1000000"})
+        public int products;
+
+        @Setup
+        public void setUp() {
+            create(products);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Small extends Catalog {
+
+        @Param({"1000", "10000"})
+        public int products;
+
+        @Setup
+        public void setUp() {
+            create(products);
+        }
+    }
+
+    @Benchmark
+    public ValidationReport validateProducts(Large catalog) {
+        return catalog.validator.validateProducts(catalog.productList);
+    }
+
+    @Benchmark
+    public ValidationReport validateImages(Large catalog) {
+        return catalog.validator.validateImages(catalog.productList, catalog.imageFiles);
+    }
+
+    @Benchmark
+    public int legacyCheckProducts(Small catalog) {
+        return Legacy.checkProducts(catalog.productList);
+    }
+
+    @Benchmark
+    public int legacyCheckImages(Small catalog) {
+        return Legacy.checkImages(catalog.productList, catalog.imageFiles);
+    }
+}
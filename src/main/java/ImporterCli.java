@@ -0,0 +1,237 @@
+import config.SettingsLoader;
+import exception.AppException;
+import importer.Importer;
+import importer.UploadJob;
+import importer.UploadScheduler;
+import importer.Uploader;
+import importer.ValidationReport;
+import listener.ProgressListener;
+import printer.Level;
+import printer.SimplePrinter;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless entry point for scheduled exports. Runs load, validate, csv, images and upload one after another
+ * on the same engines as {@link MainForm} and prints the time of every stage.
+ */
+public class ImporterCli {
+
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_FAILED = 1;
+    public static final int EXIT_USAGE = 2;
+    public static final int EXIT_INVALID = 3;
+    public static final int EXIT_UPLOAD_INCOMPLETE = 4;
+    public static final int EXIT_CANCELLED = 130;
+
+    private static final String PASSWORD_VARIABLE = "IMPORTER_FTP_PASSWORD";
+    private static final List<String> STAGES = Arrays.asList("load", "validate", "csv", "images", "upload");
+
+    private final SimplePrinter printer = new SimplePrinter();
+    private final Importer importer = new Importer(printer);
+    private final SettingsLoader settingsLoader = new SettingsLoader();
+    private final Map<String, String> options = new LinkedHashMap<>();
+    private final Map<String, String> timings = new LinkedHashMap<>();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile boolean cancelled;
+    private volatile int status;
+    private String stage;
+    private long stageStart;
+
+    private final ProgressListener listener = new ProgressListener() {
+        @Override
+        public void progress(long done, long total) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    };
+
+    public static void main(String[] args) {
+        ImporterCli cli = new ImporterCli();
+        int status = cli.run(args);
+        // After a signal the JVM is already shutting down and System.exit would block until the hooks are done.
+        if (!cli.cancelled) {
+            System.exit(status);
+        }
+    }
+
+    public int run(String[] args) {
+        if (!parseOptions(args) || !options.containsKey("catalog")) {
+            printUsage();
+            return EXIT_USAGE;
+        }
+        Path catalog = Paths.get(options.get("catalog"));
+        if (!Files.isDirectory(catalog)) {
+            printer.error("Catalog folder not found: {}", catalog);
+            return EXIT_USAGE;
+        }
+        List<String> stages = options.containsKey("stages")
+                ? Arrays.asList(options.get("stages").split(","))
+                : STAGES;
+        if (!STAGES.containsAll(stages)) {
+            printUsage();
+            return EXIT_USAGE;
+        }
+
+        importer.setCatalogLocation(catalog);
+        try {
+            settingsLoader.load(catalog);
+        } catch (AppException e) {
+            printer.info("No settings file in the catalog folder, using defaults.");
+        }
+        printer.setLevel(settingsLoader.getEnum(SettingsLoader.KEY_LOG_LEVEL, Level.class, Level.INFO));
+        importer.applySettings(settingsLoader);
+        if (options.containsKey("output")) {
+            importer.setOutputDirectory(Paths.get(options.get("output")));
+        }
+        if (options.containsKey("url-prefix")) {
+            importer.setUrlPrefix(options.get("url-prefix"));
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (finished.getCount() == 0) {
+                return;
+            }
+            cancelled = true;
+            try {
+                // Give the running stage the chance to close the journal and manifests.
+                if (finished.await(10, TimeUnit.SECONDS)) {
+                    // Exit with the status of the run instead of the one of the signal.
+                    Runtime.getRuntime().halt(status);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        int status = EXIT_OK;
+        try {
+            begin("load");
+            importer.loadCatalog(listener);
+            end("OK");
+
+            if (stages.contains("validate")) {
+                begin("validate");
+                if (importer.validate().hasProblems() && status == EXIT_OK) {
+                    status = EXIT_INVALID;
+                }
+                end("OK");
+            }
+            if (stages.contains("csv")) {
+                begin("csv");
+                importer.saveProductsToCSV(listener);
+                end("OK");
+            }
+            if (stages.contains("images")) {
+                begin("images");
+                ValidationReport images = importer.saveImages(listener);
+                if (images != null && images.hasProblems() && status == EXIT_OK) {
+                    status = EXIT_INVALID;
+                }
+                end("OK");
+            }
+            if (stages.contains("upload")) {
+                begin("upload");
+                if (!upload() && status == EXIT_OK) {
+                    status = EXIT_UPLOAD_INCOMPLETE;
+                }
+                end("OK");
+            }
+        } catch (CancellationException e) {
+            end("CANCELLED");
+            printer.warn("Cancelled.");
+            status = EXIT_CANCELLED;
+        } catch (Exception e) {
+            end("FAILED");
+            if (e instanceof AppException) {
+                printer.print(e.getMessage());
+            } else {
+                printer.error("{}", e);
+            }
+            status = EXIT_FAILED;
+        }
+
+        printSummary(status);
+        this.status = status;
+        finished.countDown();
+        return status;
+    }
+
+    private boolean upload() throws Exception {
+        String url = option("ftp-url", SettingsLoader.KEY_FTP_URL);
+        String user = option("ftp-user", SettingsLoader.KEY_USERNAME);
+        String password = option("ftp-password", SettingsLoader.KEY_PASSWORD);
+        if (password == null) {
+            password = System.getenv(PASSWORD_VARIABLE);
+        }
+        if (url == null || user == null || password == null) {
+            throw new AppException("[ERROR] Some of the ftp settings are not set.");
+        }
+
+        UploadJob job = new UploadJob(printer, importer.getImagesDirectory(), url, user, password);
+        job.setConnections(settingsLoader.getInt(SettingsLoader.KEY_FTP_CONNECTIONS, UploadScheduler.DEFAULT_CONNECTIONS));
+        job.setRetries(settingsLoader.getInt(SettingsLoader.KEY_FTP_RETRIES, UploadScheduler.DEFAULT_RETRIES));
+        job.setIndexTtl(settingsLoader.getInt(SettingsLoader.KEY_FTP_INDEX_TTL, Uploader.DEFAULT_INDEX_TTL));
+        job.setRunReport(settingsLoader.getBoolean(SettingsLoader.KEY_RUN_REPORT, true));
+        job.run(() -> cancelled);
+        if (cancelled) {
+            throw new CancellationException();
+        }
+        return job.getFailed() == 0;
+    }
+
+    private String option(String name, String settingsKey) {
+        String value = options.get(name);
+        return value != null ? value : settingsLoader.getString(settingsKey);
+    }
+
+    private void begin(String stage) {
+        this.stage = stage;
+        stageStart = System.nanoTime();
+    }
+
+    private void end(String result) {
+        timings.put(stage, result + " " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - stageStart) + " ms");
+    }
+
+    private void printSummary(int status) {
+        timings.forEach((stage, result) -> printer.info("Stage {}: {}", stage, result));
+        printer.info("Finished with status {}", status);
+    }
+
+    private boolean parseOptions(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                return false;
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return true;
+    }
+
+    private void printUsage() {
+        System.err.println("Usage: ImporterCli --catalog <folder> [options]");
+        System.err.println("  --output <folder>         where products.csv and images are written, the parent of the catalog by default");
+        System.err.println("  --url-prefix <url>        overrides url_prefix of settings.properties");
+        System.err.println("  --stages <list>           comma separated subset of " + String.join(",", STAGES) + ", all by default");
+        System.err.println("  --ftp-url <host[:port]>   overrides ftp_url");
+        System.err.println("  --ftp-user <name>         overrides ftp_user");
+        System.err.println("  --ftp-password <secret>   overrides ftp_password, " + PASSWORD_VARIABLE + " is used when neither is set");
+        System.err.println("Exit status: " + EXIT_OK + " ok, " + EXIT_FAILED + " a stage failed, " + EXIT_USAGE + " bad arguments, "
+                + EXIT_INVALID + " validation problems, " + EXIT_UPLOAD_INCOMPLETE + " some uploads failed, "
+                + EXIT_CANCELLED + " cancelled");
+        System.err.println("  A failed or cancelled stage decides the status, otherwise the first problem found does.");
+    }
+}
@@ -3,8 +3,12 @@ import com.intellij.uiDesigner.core.GridLayoutManager;
 import config.SettingsLoader;
 import entity.Product;
 import exception.AppException;
+import importer.CatalogWatcher;
 import importer.Importer;
+import importer.ImporterTask;
+import printer.Level;
 import printer.PrinterGUI;
+import importer.UploadScheduler;
 import importer.Uploader;
 import util.Constants;
 
@@ -13,10 +17,13 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 public class MainForm extends JFrame {
     private JPanel panel1;
@@ -28,11 +35,18 @@ public class MainForm extends JFrame {
     private JButton buttonUpload;
     private JScrollPane scrollPane;
     private JButton stopUloadButton;
+    private JProgressBar progressBar;
+    private JLabel statusLabel;
+    private JButton cancelButton;
     private static final String DEFAULT_URL_PREFIX = "https://ih1947831.my-ihor.ru/wp-content/uploads/products/";
     private PrinterGUI printer;
     private Importer importer;
     private SettingsLoader settingsLoader;
     private Uploader uploader;
+    private JMenuItem selectItem;
+    private JCheckBoxMenuItem watchItem;
+    private CatalogWatcher watcher;
+    private final List<ImporterTask> tasks = new ArrayList<>();
 
     private MainForm() {
         setTitle("Importer");
@@ -45,6 +59,7 @@ public class MainForm extends JFrame {
         settingsLoader = new SettingsLoader();
 
         setUpButtons();
+        setUpTaskControls();
 
         JMenuBar menuBar = new JMenuBar();
         menuBar.add(setUpFileMenu());
@@ -80,6 +95,7 @@ public class MainForm extends JFrame {
     private JMenu setUpFileMenu() {
         JMenu fileMenu = new JMenu("File");
         JMenuItem select = new JMenuItem("Select catalog folder");
+        selectItem = select;
 
         select.addActionListener(e -> {
             JFileChooser chooser = new JFileChooser();
@@ -99,21 +115,24 @@ public class MainForm extends JFrame {
                     } else {
                         textFieldURL.setText(prefix);
                     }
+                    printer.setLevel(settingsLoader.getEnum(SettingsLoader.KEY_LOG_LEVEL, Level.class, Level.INFO));
+                    printer.setMaxMessagesPerSecond(settingsLoader.getInt(SettingsLoader.KEY_LOG_RATE, PrinterGUI.DEFAULT_MAX_MESSAGES_PER_SECOND));
+                    importer.applySettings(settingsLoader);
                 } catch (AppException ex) {
                     showMessageDialog(ex.getMessage());
                 }
-                try {
-                    importer.loadProducts();
-                } catch (AppException ex) {
-                    printer.print(ex.getMessage());
-                    showMessageDialog(ex.getMessage());
-                }
+                stopWatcher();
+                startTask(new ImporterTask(printer, "Loading catalog", "files", importer::loadProducts), this::updateWatcher);
             } else {
                 printer.print("[INFO] Catalog folder is not set.");
             }
         });
 
+        watchItem = new JCheckBoxMenuItem("Watch catalog folder");
+        watchItem.addActionListener(e -> updateWatcher());
+
         fileMenu.add(select);
+        fileMenu.add(watchItem);
 
         return fileMenu;
     }
@@ -130,22 +149,12 @@ public class MainForm extends JFrame {
 
             if (checkBoxCSV.isSelected()) {
                 printer.print("[INFO] Saving CSV");
-                try {
-                    importer.saveProductsToCSV();
-                } catch (AppException ex) {
-                    showMessageDialog(ex.getMessage());
-                    printer.print(ex.getMessage());
-                }
+                startTask(new ImporterTask(printer, "Saving CSV", "rows", importer::saveProductsToCSV));
             }
 
             if (checkBoxImages.isSelected()) {
                 printer.print("[INFO] Saving images");
-                try {
-                    importer.saveImages();
-                } catch (AppException ex) {
-                    showMessageDialog(ex.getMessage());
-                    printer.print(ex.getMessage());
-                }
+                startTask(new ImporterTask(printer, "Saving images", "files", importer::saveImages));
             }
 
             if (!checkBoxImages.isSelected() && !checkBoxCSV.isSelected()) {
@@ -170,10 +179,14 @@ public class MainForm extends JFrame {
                 stopUloadButton.setVisible(true);
                 uploader = new Uploader(
                         printer,
-                        importer.getCatalogLocation().getParent().toString() + "\\images\\",
+                        importer.getImagesDirectory().toString(),
                         URL,
                         user,
                         password);
+                uploader.setConnections(settingsLoader.getInt(SettingsLoader.KEY_FTP_CONNECTIONS, UploadScheduler.DEFAULT_CONNECTIONS));
+                uploader.setRetries(settingsLoader.getInt(SettingsLoader.KEY_FTP_RETRIES, UploadScheduler.DEFAULT_RETRIES));
+                uploader.setIndexTtl(settingsLoader.getInt(SettingsLoader.KEY_FTP_INDEX_TTL, Uploader.DEFAULT_INDEX_TTL));
+                uploader.setRunReport(settingsLoader.getBoolean(SettingsLoader.KEY_RUN_REPORT, true));
                 uploader.addDoneListener(() -> {
                     buttonUpload.setVisible(true);
                     stopUloadButton.setVisible(false);
@@ -195,6 +208,87 @@ public class MainForm extends JFrame {
         });
     }
 
+    private void setUpTaskControls() {
+        cancelButton.addActionListener(e -> {
+            printer.print("[INFO] Stopping");
+            new ArrayList<>(tasks).forEach(task -> task.cancel(true));
+        });
+        new Timer(250, e -> updateProgress()).start();
+    }
+
+    private void startTask(ImporterTask task) {
+        startTask(task, null);
+    }
+
+    private void startTask(ImporterTask task, Runnable onSuccess) {
+        tasks.add(task);
+        task.addDoneListener(() -> {
+            tasks.remove(task);
+            updateTaskControls();
+            if (task.getErrorMessage() != null) {
+                showMessageDialog(task.getErrorMessage());
+            } else if (onSuccess != null && !task.isCancelled()) {
+                onSuccess.run();
+            }
+        });
+        updateTaskControls();
+        task.execute();
+    }
+
+    private void updateWatcher() {
+        stopWatcher();
+        if (!watchItem.isSelected() || !importer.hasCatalog()) {
+            return;
+        }
+        try {
+            watcher = new CatalogWatcher(importer, printer);
+            watcher.start();
+        } catch (IOException ex) {
+            printer.print("[ERROR] Can't watch catalog folder: " + ex.getMessage());
+        }
+    }
+
+    private void stopWatcher() {
+        if (watcher == null) {
+            return;
+        }
+        try {
+            watcher.close();
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+        watcher = null;
+    }
+
+    private void updateTaskControls() {
+        boolean running = !tasks.isEmpty();
+        selectItem.setEnabled(!running);
+        saveButton.setEnabled(!running);
+        progressBar.setVisible(running);
+        cancelButton.setVisible(running);
+        updateProgress();
+    }
+
+    private void updateProgress() {
+        if (tasks.isEmpty()) {
+            statusLabel.setText("");
+            return;
+        }
+        long done = 0;
+        long total = 0;
+        boolean known = true;
+        for (ImporterTask task : tasks) {
+            done += task.getDone();
+            total += task.getTotal();
+            known &= task.getTotal() > 0;
+        }
+        progressBar.setIndeterminate(!known);
+        if (known) {
+            progressBar.setValue((int) (done * 100 / total));
+        }
+        statusLabel.setText(tasks.stream().map(ImporterTask::getThroughput).collect(Collectors.joining(" | ")));
+    }
+
     private void showMessageDialog(String message) {
         JOptionPane.showMessageDialog(this, message);
     }
@@ -215,7 +309,7 @@ public class MainForm extends JFrame {
      */
     private void $$$setupUI$$$() {
         panel1 = new JPanel();
-        panel1.setLayout(new GridLayoutManager(3, 1, new Insets(0, 0, 0, 0), -1, -1));
+        panel1.setLayout(new GridLayoutManager(4, 1, new Insets(0, 0, 0, 0), -1, -1));
         scrollPane = new JScrollPane();
         panel1.add(scrollPane, new GridConstraints(0, 0, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_BOTH, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_WANT_GROW, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_WANT_GROW, null, null, null, 0, false));
         textPane = new JTextPane();
@@ -248,6 +342,19 @@ public class MainForm extends JFrame {
         panel3.add(label1, new GridConstraints(0, 0, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_NONE, GridConstraints.SIZEPOLICY_FIXED, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
         textFieldURL = new JTextField();
         panel3.add(textFieldURL, new GridConstraints(0, 1, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_HORIZONTAL, GridConstraints.SIZEPOLICY_WANT_GROW, GridConstraints.SIZEPOLICY_FIXED, null, new Dimension(150, -1), null, 0, false));
+        final JPanel panel4 = new JPanel();
+        panel4.setLayout(new GridLayoutManager(1, 3, new Insets(0, 0, 0, 0), -1, -1));
+        panel1.add(panel4, new GridConstraints(3, 0, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_BOTH, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, null, null, null, 0, false));
+        progressBar = new JProgressBar();
+        progressBar.setVisible(false);
+        panel4.add(progressBar, new GridConstraints(0, 0, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_HORIZONTAL, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_WANT_GROW, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
+        statusLabel = new JLabel();
+        statusLabel.setText("");
+        panel4.add(statusLabel, new GridConstraints(0, 1, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_NONE, GridConstraints.SIZEPOLICY_FIXED, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
+        cancelButton = new JButton();
+        cancelButton.setText("Cancel");
+        cancelButton.setVisible(false);
+        panel4.add(cancelButton, new GridConstraints(0, 2, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_HORIZONTAL, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
     }
 
     /**
@@ -0,0 +1,162 @@
+import entity.Product;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
+
+/**
+ * Table model that reads cells straight from the product list. Only visible cells are formatted; sorting and
+ * filtering build an index of visible rows on a background thread from per-column keys computed once.
+ */
+public class ProductTableModel extends AbstractTableModel {
+
+    private static final String[] HEADER = new String[]{"Sku", "Weight", "Name", "Description", "Categories", "File"};
+
+    private final List<Product> products;
+    // Filled by background sorts, elements are published through the array.
+    private final AtomicReferenceArray<String[]> sortKeys = new AtomicReferenceArray<>(HEADER.length);
+    private volatile String[] searchKeys;
+
+    private int[] view;
+    private int sortColumn = -1;
+    private boolean ascending = true;
+    private String filter = "";
+    private SwingWorker<int[], Void> worker;
+
+    public ProductTableModel(List<Product> products) {
+        this.products = products;
+    }
+
+    @Override
+    public int getRowCount() {
+        return view == null ? products.size() : view.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return HEADER.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return HEADER[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        return getValue(view == null ? rowIndex : view[rowIndex], columnIndex);
+    }
+
+    public int getSortColumn() {
+        return sortColumn;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public void sortBy(int column) {
+        ascending = column != sortColumn || !ascending;
+        sortColumn = column;
+        refresh();
+    }
+
+    public void filter(String text) {
+        filter = text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+        refresh();
+    }
+
+    private String getValue(int index, int column) {
+        Product product = products.get(index);
+        switch (column) {
+            case 0:
+                return product.getSKU();
+            case 1:
+                return product.getWeight();
+            case 2:
+                return product.getName();
+            case 3:
+                return product.getDescription();
+            case 4:
+                return product.getCategories();
+            default:
+                return product.getFile().toString();
+        }
+    }
+
+    private void refresh() {
+        if (worker != null) {
+            worker.cancel(true);
+        }
+        int column = sortColumn;
+        boolean order = ascending;
+        String text = filter;
+        worker = new SwingWorker<>() {
+            @Override
+            protected int[] doInBackground() {
+                return buildView(column, order, text);
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    return;
+                }
+                try {
+                    view = get();
+                    fireTableDataChanged();
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    private int[] buildView(int column, boolean order, String text) {
+        IntStream rows = IntStream.range(0, products.size());
+        if (!text.isEmpty()) {
+            String[] search = getSearchKeys();
+            rows = rows.filter(index -> search[index].contains(text));
+        }
+        if (column < 0) {
+            return rows.toArray();
+        }
+        String[] keys = getSortKeys(column);
+        Comparator<Integer> comparator = Comparator.comparing(index -> keys[index], Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+        Integer[] sorted = rows.boxed().toArray(Integer[]::new);
+        Arrays.sort(sorted, order ? comparator : comparator.reversed());
+        return Arrays.stream(sorted).mapToInt(Integer::intValue).toArray();
+    }
+
+    private String[] getSortKeys(int column) {
+        String[] keys = sortKeys.get(column);
+        if (keys == null) {
+            keys = new String[products.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = getValue(i, column);
+            }
+            sortKeys.set(column, keys);
+        }
+        return keys;
+    }
+
+    private String[] getSearchKeys() {
+        String[] keys = searchKeys;
+        if (keys == null) {
+            keys = new String[products.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = (getValue(i, 0) + "\t" + getValue(i, 2) + "\t" + getValue(i, 3) + "\t" + getValue(i, 4))
+                        .toLowerCase(Locale.ROOT);
+            }
+            searchKeys = keys;
+        }
+        return keys;
+    }
+}
@@ -1,41 +1,63 @@
 import entity.Product;
 
 import javax.swing.*;
-import javax.swing.table.TableModel;
-import javax.swing.table.TableRowSorter;
-import java.util.ArrayList;
-import java.util.Arrays;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.util.List;
 
 public class TableForm extends JFrame {
 
+    private static final int FILTER_DELAY = 200;
+
     private JTable table;
+    private ProductTableModel model;
 
 
     public TableForm(List<Product> products) {
         setTitle("Product table");
-        String[] header = new String[]{"Sku", "Weight", "Name", "Description", "Categories", "File"};
-        String[][] values = new String[products.size()][header.length];
-        int i = 0;
-        for (Product product : products) {
-            values[i][0] = product.getSKU();
-            values[i][1] = product.getWeight();
-            values[i][2] = product.getName();
-            values[i][3] = product.getDescription();
-            values[i][4] = product.getCategories();
-            values[i][5] = product.getFile().toString();
-            i++;
-        }
-        table = new JTable(values, header);
-        TableRowSorter<TableModel> sorter = new TableRowSorter<>(table.getModel());
-        table.setRowSorter(sorter);
-        sorter.setSortKeys(Arrays.asList(new RowSorter.SortKey(0, SortOrder.ASCENDING),
-                new RowSorter.SortKey(1, SortOrder.ASCENDING),
-                new RowSorter.SortKey(2, SortOrder.ASCENDING),
-                new RowSorter.SortKey(3, SortOrder.ASCENDING),
-                new RowSorter.SortKey(4, SortOrder.ASCENDING),
-                new RowSorter.SortKey(5, SortOrder.ASCENDING)));
-        setContentPane(new JScrollPane(table));
+        model = new ProductTableModel(products);
+        table = new JTable(model);
+        table.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = table.columnAtPoint(e.getPoint());
+                if (column >= 0) {
+                    model.sortBy(table.convertColumnIndexToModel(column));
+                }
+            }
+        });
+
+        JTextField filterField = new JTextField();
+        Timer filterTimer = new Timer(FILTER_DELAY, e -> model.filter(filterField.getText()));
+        filterTimer.setRepeats(false);
+        filterField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                filterTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                filterTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                filterTimer.restart();
+            }
+        });
+
+        JPanel filterPanel = new JPanel(new BorderLayout());
+        filterPanel.add(new JLabel("Filter: "), BorderLayout.WEST);
+        filterPanel.add(filterField, BorderLayout.CENTER);
+
+        JPanel content = new JPanel(new BorderLayout());
+        content.add(filterPanel, BorderLayout.NORTH);
+        content.add(new JScrollPane(table), BorderLayout.CENTER);
+        setContentPane(content);
         setSize(640, 480);
     }
 }
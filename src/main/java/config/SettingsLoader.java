@@ -8,10 +8,29 @@ import java.util.Properties;
 
 public class SettingsLoader {
 
+    public static final String FILE_NAME = "settings.properties";
+
     public static final String KEY_PASSWORD = "ftp_password";
     public static final String KEY_USERNAME = "ftp_user";
     public static final String KEY_FTP_URL = "ftp_url";
     public static final String KEY_URL_PREFIX = "url_prefix";
+    public static final String KEY_FTP_CONNECTIONS = "ftp_connections";
+    public static final String KEY_FTP_RETRIES = "ftp_retries";
+    public static final String KEY_FTP_INDEX_TTL = "ftp_index_ttl";
+    public static final String KEY_LOG_LEVEL = "log_level";
+    public static final String KEY_LOG_RATE = "log_rate";
+    public static final String KEY_SCAN_MODE = "scan_mode";
+    public static final String KEY_COPY_MODE = "copy_mode";
+    public static final String KEY_COPY_THREADS = "copy_threads";
+    public static final String KEY_COPY_METHOD = "copy_method";
+    public static final String KEY_INCREMENTAL_COPY = "incremental_copy";
+    public static final String KEY_MANIFEST_HASH = "manifest_hash";
+    public static final String KEY_DELETE_ORPHANS = "delete_orphans";
+    public static final String KEY_CATALOG_INDEX = "catalog_index";
+    public static final String KEY_IMAGE_MAX_SIZE = "image_max_size";
+    public static final String KEY_IMAGE_QUALITY = "image_quality";
+    public static final String KEY_SHARE_IMAGES = "share_images";
+    public static final String KEY_RUN_REPORT = "run_report";
 
     private Properties properties;
 
@@ -23,7 +42,7 @@ public class SettingsLoader {
         properties = new Properties();
         InputStream stream;
         try {
-            stream = new FileInputStream(new File(catalogLocation.toString() + "\\settings.properties"));
+            stream = new FileInputStream(catalogLocation.resolve(FILE_NAME).toFile());
             properties.load(stream);
         } catch (FileNotFoundException e) {
             e.printStackTrace();
@@ -32,10 +51,45 @@ public class SettingsLoader {
             e.printStackTrace();
             throw new AppException("[ERROR] Can't load settings");
         }
-        System.out.println(properties.getProperty("test"));
     }
 
     public Properties getProperties() {
         return properties;
     }
+
+    public String getString(String key) {
+        return properties == null ? null : properties.getProperty(key);
+    }
+
+    public <E extends Enum<E>> E getEnum(String key, Class<E> type, E defaultValue) {
+        String value = properties == null ? null : properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return defaultValue;
+        }
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = properties == null ? null : properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = properties == null ? null : properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value.trim());
+    }
 }
@@ -0,0 +1,91 @@
+package entity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node of the category tree. Nodes are interned by their parent, so all products of a folder share one node
+ * and its display path, slug and name list are built once.
+ */
+public class Category {
+
+    private static final String SEPARATOR = " > ";
+
+    private final String name;
+    private final Category parent;
+    private final String path;
+    private final String slug;
+    private final List<String> names;
+    private final Map<String, Category> children = new ConcurrentHashMap<>();
+
+    private Category(String name, Category parent) {
+        this.name = name;
+        this.parent = parent;
+        if (parent == null) {
+            path = "";
+            slug = "";
+            names = Collections.emptyList();
+        } else {
+            path = parent.isRoot() ? name : parent.path + SEPARATOR + name;
+            String ownSlug = name.replace(" ", "-").toLowerCase(Locale.ROOT);
+            slug = parent.isRoot() ? ownSlug : ownSlug + "-" + parent.slug;
+            List<String> list = new ArrayList<>(parent.names.size() + 1);
+            list.add(name);
+            list.addAll(parent.names);
+            names = Collections.unmodifiableList(list);
+        }
+    }
+
+    /**
+     * Creates the root of a new tree. The root stands for products that are not in any category.
+     */
+    public static Category root() {
+        return new Category(null, null);
+    }
+
+    public Category child(String name) {
+        return children.computeIfAbsent(name, key -> new Category(key, this));
+    }
+
+    public boolean isRoot() {
+        return parent == null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Category getParent() {
+        return parent;
+    }
+
+    /**
+     * Categories from the top level down to this one, joined with " > ".
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Lower-case names joined with "-", this category first.
+     */
+    public String getSlug() {
+        return slug;
+    }
+
+    /**
+     * Category names, this category first.
+     */
+    public List<String> getNames() {
+        return names;
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
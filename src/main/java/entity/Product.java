@@ -1,5 +1,7 @@
 package entity;
 
+import util.FileName;
+
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
@@ -10,14 +12,23 @@ public class Product {
     private String weight;
     private String name;
     private String description;
-    private List<String> categories;
+    private Category category;
     private Path file;
-    private List<Path> additionalImages = new ArrayList<>();
+    private String extension;
+    private String sharedImage;
+    private volatile List<Path> additionalImages = new ArrayList<>();
 
     public List<Path> getAdditionalImages() {
         return additionalImages;
     }
 
+    /**
+     * Replaces the list as a whole, so that other threads see either the old or the new images.
+     */
+    public void setAdditionalImages(List<Path> additionalImages) {
+        this.additionalImages = additionalImages;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -43,24 +54,19 @@ public class Product {
     }
 
     public String getCategories() {
-        StringBuilder stringBuilder = new StringBuilder();
-
-        for (int i = categories.size() - 1; i >= 0; i--) {
-            if (i != 0) {
-                stringBuilder.append(categories.get(i)).append(" > ");
-            } else {
-                stringBuilder.append(categories.get(i));
-            }
-        }
-        return stringBuilder.toString();
+        return category.getPath();
     }
 
     public List<String> getRawCategories() {
-        return categories;
+        return category.getNames();
     }
 
-    public void setCategories(List<String> categories) {
-        this.categories = categories;
+    public Category getCategory() {
+        return category;
+    }
+
+    public void setCategory(Category category) {
+        this.category = category;
     }
 
     public String getWeight() {
@@ -79,8 +85,30 @@ public class Product {
         this.SKU = SKU;
     }
 
-    public String getFileExtension(){
-        return file.getFileName().toString().split("\\.")[1].toLowerCase();
+    public String getFileExtension() {
+        if (extension == null) {
+            extension = FileName.parse(file.getFileName().toString()).getExtension();
+        }
+        return extension;
+    }
+
+    public void setExtension(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Name of the exported image: "SKU.ext", or the image of another product with the same photo.
+     */
+    public String getImageName() {
+        return sharedImage != null ? sharedImage : SKU + "." + getFileExtension();
+    }
+
+    public String getSharedImage() {
+        return sharedImage;
+    }
+
+    public void setSharedImage(String sharedImage) {
+        this.sharedImage = sharedImage;
     }
 
     @Override
@@ -89,7 +117,7 @@ public class Product {
                 "SKU='" + SKU + '\'' +
                 ", weight='" + weight + '\'' +
                 ", name='" + getName() + '\'' +
-                ", categories=" + categories +
+                ", categories=" + category.getNames() +
                 ", file=" + file +
                 '}';
     }
@@ -0,0 +1,41 @@
+package importer;
+
+import entity.AdditionalImage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class AdditionalImageIndex {
+
+    private final Map<String, List<AdditionalImage>> imagesBySku;
+
+    public AdditionalImageIndex(List<AdditionalImage> images) {
+        imagesBySku = new HashMap<>(Math.max(16, images.size() * 4 / 3));
+        images.forEach(this::add);
+    }
+
+    public List<AdditionalImage> get(String sku) {
+        return imagesBySku.getOrDefault(sku, Collections.emptyList());
+    }
+
+    public void add(AdditionalImage image) {
+        imagesBySku.computeIfAbsent(image.getSKU(), sku -> new ArrayList<>(2)).add(image);
+    }
+
+    public void remove(AdditionalImage image) {
+        List<AdditionalImage> images = imagesBySku.get(image.getSKU());
+        if (images != null) {
+            images.remove(image);
+            if (images.isEmpty()) {
+                imagesBySku.remove(image.getSKU());
+            }
+        }
+    }
+
+    public int size() {
+        return imagesBySku.size();
+    }
+}
@@ -0,0 +1,49 @@
+package importer;
+
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hard links when source and target are on the same volume, uses transferTo otherwise and falls back to
+ * {@link java.nio.file.Files#copy} if that fails too. Linking is switched off after the first failure.
+ */
+public class AutoCopyStrategy implements CopyStrategy {
+
+    private final CopyStrategy link = new HardLinkCopyStrategy();
+    private final CopyStrategy transfer = new TransferCopyStrategy();
+    private final CopyStrategy copy = new FilesCopyStrategy();
+    private final Map<Path, Boolean> sameStore = new ConcurrentHashMap<>();
+    private volatile boolean linkSupported = true;
+
+    @Override
+    public void copy(Path source, Path target) throws IOException {
+        if (linkSupported && isSameStore(source, target)) {
+            try {
+                link.copy(source, target);
+                return;
+            } catch (IOException | UnsupportedOperationException e) {
+                linkSupported = false;
+            }
+        }
+        try {
+            transfer.copy(source, target);
+        } catch (IOException e) {
+            copy.copy(source, target);
+        }
+    }
+
+    private boolean isSameStore(Path source, Path target) throws IOException {
+        Path sourceDirectory = source.toAbsolutePath().getParent();
+        Boolean result = sameStore.get(sourceDirectory);
+        if (result == null) {
+            FileStore targetStore = Files.getFileStore(target.toAbsolutePath().getParent());
+            result = Files.getFileStore(sourceDirectory).equals(targetStore);
+            sameStore.put(sourceDirectory, result);
+        }
+        return result;
+    }
+}
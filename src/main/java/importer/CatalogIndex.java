@@ -0,0 +1,199 @@
+package importer;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binary snapshot of a scanned catalog with one record per folder: its modification time and its entries in
+ * listing order. A folder whose modification time did not change since the snapshot is replayed from here
+ * instead of being listed and parsed again. Product names are not stored, they are resolved from names.txt
+ * on every load.
+ */
+public class CatalogIndex {
+
+    public static final String FILE_NAME = "catalog.index";
+    private static final int MAGIC = 0x43494458;
+    private static final int VERSION = 2;
+
+    private final Map<String, Directory> directories = new ConcurrentHashMap<>();
+
+    public Directory get(String directory) {
+        return directories.get(directory);
+    }
+
+    public void put(String directory, Directory record) {
+        directories.put(directory, record);
+    }
+
+    public int size() {
+        return directories.size();
+    }
+
+    /**
+     * Returns null when there is no index yet or it was written by another version.
+     */
+    public static CatalogIndex load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                // Read the whole file at once, records are decoded from the array.
+            }
+        }
+        buffer.flip();
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            CatalogIndex index = new CatalogIndex();
+            int directoryCount = buffer.getInt();
+            for (int i = 0; i < directoryCount; i++) {
+                String key = readString(buffer);
+                long modified = buffer.getLong();
+                int entryCount = buffer.getInt();
+                List<Entry> entries = new ArrayList<>(entryCount);
+                for (int j = 0; j < entryCount; j++) {
+                    byte kind = buffer.get();
+                    String name = readString(buffer);
+                    if (kind == Entry.PRODUCT) {
+                        entries.add(new Entry(kind, name, readString(buffer), readString(buffer), readString(buffer)));
+                    } else if (kind == Entry.IMAGE) {
+                        entries.add(new Entry(kind, name, readString(buffer), null, null));
+                    } else {
+                        entries.add(new Entry(Entry.DIRECTORY, name, null, null, null));
+                    }
+                }
+                index.put(key, new Directory(modified, entries));
+            }
+            return index;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Damaged catalog index: " + file, e);
+        }
+    }
+
+    public void save(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(directories.size());
+            for (Map.Entry<String, Directory> directory : new TreeMap<>(directories).entrySet()) {
+                writeString(out, directory.getKey());
+                out.writeLong(directory.getValue().modified);
+                out.writeInt(directory.getValue().entries.size());
+                for (Entry entry : directory.getValue().entries) {
+                    out.writeByte(entry.kind);
+                    writeString(out, entry.name);
+                    if (entry.kind != Entry.DIRECTORY) {
+                        writeString(out, entry.sku);
+                    }
+                    if (entry.kind == Entry.PRODUCT) {
+                        writeString(out, entry.weight);
+                        writeString(out, entry.description);
+                    }
+                }
+            }
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Bad string length " + length);
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static class Directory {
+
+        private final long modified;
+        private final List<Entry> entries;
+
+        public Directory(long modified, List<Entry> entries) {
+            this.modified = modified;
+            this.entries = entries;
+        }
+
+        public long getModified() {
+            return modified;
+        }
+
+        public List<Entry> getEntries() {
+            return Collections.unmodifiableList(entries);
+        }
+    }
+
+    public static class Entry {
+
+        public static final byte DIRECTORY = 0;
+        public static final byte PRODUCT = 1;
+        public static final byte IMAGE = 2;
+
+        private final byte kind;
+        private final String name;
+        private final String sku;
+        private final String weight;
+        private final String description;
+
+        public Entry(byte kind, String name, String sku, String weight, String description) {
+            this.kind = kind;
+            this.name = name;
+            this.sku = sku;
+            this.weight = weight;
+            this.description = description;
+        }
+
+        public byte getKind() {
+            return kind;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSku() {
+            return sku;
+        }
+
+        public String getWeight() {
+            return weight;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package importer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public interface CatalogScanner {
+
+    int MAX_DEPTH = 10;
+
+    ScanResult scan(Path catalogLocation, ProductParser parser) throws IOException;
+}
@@ -0,0 +1,137 @@
+package importer;
+
+import entity.Product;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Checks weights, SKU uniqueness and exported images with hash lookups, in linear time. Per-product checks
+ * run in parallel on large catalogs; duplicates are found in one ordered pass so the first product of a SKU
+ * is never reported.
+ */
+public class CatalogValidator {
+
+    public static final int PARALLEL_THRESHOLD = 10_000;
+    private static final Locale SKU_LOCALE = new Locale("ru", "RU");
+
+    public ValidationReport validateProducts(List<Product> products) {
+        ValidationReport report = new ValidationReport(products.size());
+        boolean[] wrongWeight = new boolean[products.size()];
+        range(products.size()).forEach(i -> wrongWeight[i] = !isDecimal(products.get(i).getWeight()));
+        report.put(ValidationReport.Problem.WRONG_WEIGHT, select(products, wrongWeight));
+
+        List<Product> duplicates = new ArrayList<>();
+        Set<String> skus = new HashSet<>(Math.max(16, products.size() * 4 / 3));
+        products.forEach(product -> {
+            if (!skus.add(product.getSKU())) {
+                duplicates.add(product);
+            }
+        });
+        report.put(ValidationReport.Problem.DUPLICATE_SKU, duplicates);
+        return report;
+    }
+
+    /**
+     * Reports products without an exported image. Images are matched by the part of the file name before the
+     * first dot, ignoring case; a product with a shared image needs the shared file.
+     */
+    public ValidationReport validateImages(List<Product> products, Collection<Path> imageFiles) {
+        Set<String> exported = new HashSet<>(Math.max(16, imageFiles.size() * 4 / 3));
+        imageFiles.forEach(file -> exported.add(imageKey(file.getFileName().toString())));
+
+        ValidationReport report = new ValidationReport(products.size());
+        boolean[] missing = new boolean[products.size()];
+        range(products.size()).forEach(i -> missing[i] = !exported.contains(imageKey(products.get(i).getImageName())));
+        report.put(ValidationReport.Problem.MISSING_IMAGE, select(products, missing));
+        return report;
+    }
+
+    /**
+     * Whether the text is a plain decimal number such as "12", "-0.5" or "1e3", surrounding blanks allowed.
+     * Unlike {@link Float#parseFloat} it does not throw and does not accept NaN, Infinity or hex notation.
+     */
+    public static boolean isDecimal(String text) {
+        if (text == null) {
+            return false;
+        }
+        int end = text.length();
+        int i = 0;
+        while (i < end && text.charAt(i) <= ' ') {
+            i++;
+        }
+        while (end > i && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (i < end && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+            i++;
+        }
+        int digits = 0;
+        while (i < end && isDigit(text.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < end && text.charAt(i) == '.') {
+            i++;
+            while (i < end && isDigit(text.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < end && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            if (i < end && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+                i++;
+            }
+            int exponentDigits = 0;
+            while (i < end && isDigit(text.charAt(i))) {
+                i++;
+                exponentDigits++;
+            }
+            if (exponentDigits == 0) {
+                return false;
+            }
+        }
+        // Float.parseFloat also takes a type suffix.
+        if (i < end && "fFdD".indexOf(text.charAt(i)) >= 0) {
+            i++;
+        }
+        return i == end;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * File name without the extension, lower case. SKUs may contain dots, only the last one starts the extension.
+     */
+    private static String imageKey(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return (dot < 0 ? fileName : fileName.substring(0, dot)).toLowerCase(SKU_LOCALE);
+    }
+
+    private static IntStream range(int size) {
+        IntStream range = IntStream.range(0, size);
+        return size >= PARALLEL_THRESHOLD ? range.parallel() : range;
+    }
+
+    private static List<Product> select(List<Product> products, boolean[] flags) {
+        List<Product> result = new ArrayList<>();
+        for (int i = 0; i < flags.length; i++) {
+            if (flags[i]) {
+                result.add(products.get(i));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,138 @@
+package importer;
+
+import printer.Printer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Watches every folder of the catalog and hands changed files to {@link Importer#applyChanges} in batches.
+ * Events that arrive within {@link #BATCH_DELAY} ms of each other are applied together.
+ */
+public class CatalogWatcher implements Closeable {
+
+    private static final long BATCH_DELAY = 100;
+
+    private final Importer importer;
+    private final Printer printer;
+    private final Path catalogLocation;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    private final Thread thread;
+
+    public CatalogWatcher(Importer importer, Printer printer) throws IOException {
+        this.importer = importer;
+        this.printer = printer;
+        this.catalogLocation = importer.getCatalogLocation();
+        this.watchService = FileSystems.getDefault().newWatchService();
+        registerAll(catalogLocation);
+        thread = new Thread(this::run, "catalog-watcher");
+        thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+        printer.info("Watching catalog folder: {}", catalogLocation);
+    }
+
+    @Override
+    public void close() throws IOException {
+        thread.interrupt();
+        watchService.close();
+    }
+
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<Path> changed = new LinkedHashSet<>();
+                boolean reload = collect(watchService.take(), changed);
+                WatchKey key;
+                while ((key = watchService.poll(BATCH_DELAY, TimeUnit.MILLISECONDS)) != null) {
+                    reload |= collect(key, changed);
+                }
+                if (reload) {
+                    importer.reloadProducts();
+                } else if (!changed.isEmpty()) {
+                    importer.applyChanges(changed);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Watching is stopped.
+        } catch (Exception e) {
+            printer.error("Catalog watcher stopped: {}", e);
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Adds the files of one event batch to {@code changed}; returns true if only a full reload can bring
+     * the catalog up to date (lost events or a changed names.txt).
+     */
+    private boolean collect(WatchKey key, Set<Path> changed) throws IOException {
+        Path directory = directories.get(key);
+        boolean reload = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                reload = true;
+                continue;
+            }
+            if (directory == null) {
+                continue;
+            }
+            Path file = directory.resolve((Path) event.context());
+            if (directory.equals(catalogLocation) && file.getFileName().toString().equals(Importer.NAMES_FILE)) {
+                reload = true;
+            } else if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(file)) {
+                registerAll(file);
+                changed.addAll(listFiles(file));
+            } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                changed.add(file);
+                changed.addAll(importer.getKnownFiles(file));
+            } else if (!Files.isDirectory(file)) {
+                changed.add(file);
+            }
+        }
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+        return reload;
+    }
+
+    private void registerAll(Path root) throws IOException {
+        Files.walkFileTree(root, EnumSet.noneOf(FileVisitOption.class), CatalogScanner.MAX_DEPTH, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                directories.put(key, dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private Set<Path> listFiles(Path root) throws IOException {
+        try (Stream<Path> stream = Files.walk(root, CatalogScanner.MAX_DEPTH)) {
+            return stream.filter(file -> !Files.isDirectory(file)).collect(Collectors.toSet());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package importer;
+
+public enum CopyMethod {
+    COPY,
+    LINK,
+    TRANSFER,
+    AUTO;
+
+    public CopyStrategy createStrategy() {
+        switch (this) {
+            case LINK:
+                return new HardLinkCopyStrategy();
+            case TRANSFER:
+                return new TransferCopyStrategy();
+            case AUTO:
+                return new AutoCopyStrategy();
+            default:
+                return new FilesCopyStrategy();
+        }
+    }
+}
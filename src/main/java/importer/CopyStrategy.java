@@ -0,0 +1,20 @@
+package importer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public interface CopyStrategy {
+
+    /**
+     * Makes {@code target} contain the same bytes as {@code source}, replacing an existing target.
+     */
+    void copy(Path source, Path target) throws IOException;
+
+    /**
+     * Describes how targets are derived from sources when they are not plain copies, null otherwise.
+     * A target made with another variant is produced again.
+     */
+    default String getVariant() {
+        return null;
+    }
+}
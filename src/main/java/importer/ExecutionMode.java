@@ -0,0 +1,6 @@
+package importer;
+
+public enum ExecutionMode {
+    SEQUENTIAL,
+    PARALLEL
+}
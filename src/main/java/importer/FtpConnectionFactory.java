@@ -0,0 +1,74 @@
+package importer;
+
+import metrics.MetricRegistry;
+import metrics.Timer;
+import org.apache.commons.net.PrintCommandListener;
+import org.apache.commons.net.ftp.FTP;
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPReply;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+public class FtpConnectionFactory {
+
+    private final String host;
+    private final int port;
+    private final String login;
+    private final String password;
+
+    public FtpConnectionFactory(String URL, String login, String password) {
+        int separator = URL.lastIndexOf(':');
+        if (separator > 0 && URL.indexOf(':') == separator) {
+            this.host = URL.substring(0, separator);
+            this.port = Integer.parseInt(URL.substring(separator + 1));
+        } else {
+            this.host = URL;
+            this.port = FTP.DEFAULT_PORT;
+        }
+        this.login = login;
+        this.password = password;
+    }
+
+    public FTPClient connect() throws IOException {
+        try (Timer.Context ignored = MetricRegistry.getDefault().timer("upload.connect").time()) {
+            return open();
+        }
+    }
+
+    private FTPClient open() throws IOException {
+        FTPClient client = new FTPClient();
+        // The log ends up in scheduler output, so the listener hides the login and password.
+        client.addProtocolCommandListener(new PrintCommandListener(new PrintWriter(System.out), true));
+        client.setControlEncoding("UTF-8");
+
+        client.connect(host, port);
+        if (!FTPReply.isPositiveCompletion(client.getReplyCode())) {
+            disconnect(client);
+            throw new IOException("FTP server refused connection: " + client.getReplyString());
+        }
+        if (!client.login(login, password)) {
+            disconnect(client);
+            throw new IOException("Can't log in to FTP server as " + login);
+        }
+        client.setFileType(FTP.BINARY_FILE_TYPE);
+        client.enterLocalPassiveMode();
+        return client;
+    }
+
+    public static void disconnect(FTPClient client) {
+        if (client == null || !client.isConnected()) {
+            return;
+        }
+        try {
+            client.logout();
+        } catch (IOException e) {
+            // The connection is closed below anyway.
+        }
+        try {
+            client.disconnect();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
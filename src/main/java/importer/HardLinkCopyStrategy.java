@@ -0,0 +1,17 @@
+package importer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Links the target to the source file instead of copying it. Only works when both are on the same volume.
+ */
+public class HardLinkCopyStrategy implements CopyStrategy {
+
+    @Override
+    public void copy(Path source, Path target) throws IOException {
+        Files.deleteIfExists(target);
+        Files.createLink(target, source);
+    }
+}
@@ -0,0 +1,301 @@
+package importer;
+
+import entity.Product;
+import listener.ProgressListener;
+import metrics.MetricRegistry;
+import metrics.Timer;
+import printer.Field;
+import printer.Printer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Copies product images into the images folder. In parallel mode at most {@code threads} files are copied at
+ * the same time; results are collected on the calling thread, so the printer is only used from there.
+ * With a manifest set, images whose source did not change since the previous run are skipped.
+ * Products with a shared image are left to the product that owns it.
+ */
+public class ImageCopier {
+
+    private static final int PROGRESS_STEP = 1000;
+
+    private enum Status {
+        COPIED,
+        SKIPPED
+    }
+
+    private final Printer printer;
+    private final ExecutionMode mode;
+    private final int threads;
+    private final Timer copyTimer = MetricRegistry.getDefault().timer("copy.file");
+
+    private CopyStrategy copyStrategy = new FilesCopyStrategy();
+    private ProgressListener progressListener = ProgressListener.NONE;
+    private ImageManifest manifest;
+    private boolean useHash;
+    private boolean deleteOrphans;
+
+    private int copied;
+    private int skipped;
+    private int failed;
+    private int deleted;
+
+    public ImageCopier(Printer printer, ExecutionMode mode, int threads) {
+        this.printer = printer;
+        this.mode = mode;
+        this.threads = Math.max(1, threads);
+    }
+
+    public void setCopyStrategy(CopyStrategy copyStrategy) {
+        this.copyStrategy = copyStrategy;
+    }
+
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    public void setManifest(ImageManifest manifest, boolean useHash) {
+        this.manifest = manifest;
+        this.useHash = useHash;
+    }
+
+    public void setDeleteOrphans(boolean deleteOrphans) {
+        this.deleteOrphans = deleteOrphans;
+    }
+
+    public int getCopied() {
+        return copied;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    /**
+     * @throws java.util.concurrent.CancellationException when the progress listener is cancelled; files that
+     *                                                    are not started yet are not copied
+     */
+    public void copy(List<Product> products, Path imagesDirectory) throws IOException, InterruptedException {
+        copied = 0;
+        skipped = 0;
+        failed = 0;
+        deleted = 0;
+        Files.createDirectories(imagesDirectory);
+
+        List<Product> sources = sources(products);
+        if (mode == ExecutionMode.PARALLEL && threads > 1) {
+            copyParallel(sources, imagesDirectory);
+        } else {
+            copySequential(sources, imagesDirectory);
+        }
+
+        if (deleteOrphans) {
+            deleteOrphans(products, imagesDirectory);
+        }
+    }
+
+    /**
+     * Products sharing the photo of another product have nothing of their own to copy. Products with the same
+     * SKU have the same target; only the first of them is copied, so no two tasks write one file.
+     */
+    private List<Product> sources(List<Product> products) {
+        Map<String, Product> byTarget = new LinkedHashMap<>();
+        for (Product product : products) {
+            if (product.getSharedImage() == null) {
+                byTarget.putIfAbsent(targetName(product), product);
+            }
+        }
+        return new ArrayList<>(byTarget.values());
+    }
+
+    private void copySequential(List<Product> products, Path imagesDirectory) throws InterruptedException {
+        for (Product product : products) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (progressListener.isCancelled()) {
+                throw new CancellationException();
+            }
+            runTask(task(product, imagesDirectory), products.size());
+        }
+    }
+
+    private void copyParallel(List<Product> products, Path imagesDirectory) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new CopyThreadFactory());
+        CompletionService<Status> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<Status>> futures = new ArrayList<>(products.size());
+        try {
+            for (Product product : products) {
+                if (progressListener.isCancelled()) {
+                    throw new CancellationException();
+                }
+                futures.add(completionService.submit(task(product, imagesDirectory)));
+            }
+            for (Future<Status> ignored : futures) {
+                collect(completionService.take(), products.size());
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+            executor.shutdownNow();
+        }
+    }
+
+    private Callable<Status> task(Product product, Path imagesDirectory) {
+        return () -> {
+            if (progressListener.isCancelled()) {
+                throw new CancellationException();
+            }
+            long start = System.nanoTime();
+            try {
+                return copyImage(product, imagesDirectory);
+            } catch (IOException e) {
+                throw new IOException("Can't copy image " + product.getFile() + ": " + e, e);
+            } finally {
+                copyTimer.recordSince(start);
+            }
+        };
+    }
+
+    private Status copyImage(Product product, Path imagesDirectory) throws IOException {
+        String targetName = targetName(product);
+        Path source = product.getFile();
+        Path target = imagesDirectory.resolve(targetName);
+
+        if (manifest == null) {
+            copyStrategy.copy(source, target);
+            return Status.COPIED;
+        }
+
+        ImageManifest.Entry current = ImageManifest.describe(product.getSKU(), source, false, copyStrategy.getVariant());
+        ImageManifest.Entry previous = manifest.get(targetName);
+        if (previous != null && Files.exists(target)) {
+            if (previous.sameFile(current)) {
+                return Status.SKIPPED;
+            }
+            if (useHash && previous.getHash() != null && previous.getSource().equals(current.getSource())
+                    && previous.getSize() == current.getSize() && Objects.equals(previous.getVariant(), current.getVariant())) {
+                String hash = ImageManifest.hash(source);
+                if (hash.equals(previous.getHash())) {
+                    manifest.put(targetName, current.withHash(hash));
+                    return Status.SKIPPED;
+                }
+                copyStrategy.copy(source, target);
+                manifest.put(targetName, current.withHash(hash));
+                return Status.COPIED;
+            }
+        }
+
+        copyStrategy.copy(source, target);
+        manifest.put(targetName, useHash ? current.withHash(ImageManifest.hash(source)) : current);
+        return Status.COPIED;
+    }
+
+    private void deleteOrphans(List<Product> products, Path imagesDirectory) throws IOException {
+        Set<String> targets = products.stream().map(ImageCopier::targetName).collect(Collectors.toCollection(HashSet::new));
+        if (manifest != null) {
+            manifest.retainTargets(targets);
+        }
+        List<Path> orphans;
+        try (Stream<Path> stream = Files.list(imagesDirectory)) {
+            orphans = stream
+                    .filter(file -> !Files.isDirectory(file))
+                    .filter(file -> !targets.contains(file.getFileName().toString()))
+                    .collect(Collectors.toList());
+        }
+        for (Path orphan : orphans) {
+            try {
+                Files.delete(orphan);
+                deleted++;
+            } catch (IOException e) {
+                printer.error("Can't delete orphaned image {}: {}", Field.path(orphan), e);
+            }
+        }
+    }
+
+    private void runTask(Callable<Status> task, int total) {
+        try {
+            count(task.call(), null);
+        } catch (CancellationException e) {
+            throw e;
+        } catch (Exception e) {
+            count(null, e);
+        }
+        printProgress(total);
+    }
+
+    private void collect(Future<Status> future, int total) throws InterruptedException {
+        try {
+            count(future.get(), null);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CancellationException) {
+                throw (CancellationException) e.getCause();
+            }
+            count(null, e.getCause());
+        }
+        printProgress(total);
+    }
+
+    private void count(Status status, Throwable error) {
+        if (error != null) {
+            failed++;
+            printer.error(error.getMessage());
+        } else if (status == Status.SKIPPED) {
+            skipped++;
+        } else {
+            copied++;
+        }
+    }
+
+    private void printProgress(int total) {
+        int done = copied + skipped + failed;
+        progressListener.progress(done, total);
+        if (done % PROGRESS_STEP == 0 && done != total) {
+            printer.info("Processed images: {} / {}", done, total);
+        }
+    }
+
+    public static String targetName(Product product) {
+        return product.getImageName();
+    }
+
+    private static class CopyThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "image-copy-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
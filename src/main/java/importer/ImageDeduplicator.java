@@ -0,0 +1,184 @@
+package importer;
+
+import entity.Product;
+import listener.ProgressListener;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Finds products whose photos have identical contents and points all of them at the image of the first one,
+ * see {@link Product#getSharedImage()}. Hashes are SHA-256 and are cached by path, size and modification time
+ * in a tab separated file, so only new and changed photos are read again.
+ */
+public class ImageDeduplicator {
+
+    public static final String FILE_NAME = "images.hashes";
+
+    private final Path cacheFile;
+    private final int threads;
+    private final Map<String, CachedHash> cache = new ConcurrentHashMap<>();
+    private int hashed;
+
+    public ImageDeduplicator(Path cacheFile, int threads) {
+        this.cacheFile = cacheFile;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Number of photos read in the last run, the rest came from the cache.
+     */
+    public int getHashed() {
+        return hashed;
+    }
+
+    /**
+     * Sets or clears the shared image of every product and returns the number of products that share one.
+     */
+    public int deduplicate(List<Product> products, ProgressListener listener) throws IOException, InterruptedException {
+        loadCache();
+        String[] hashes = new String[products.size()];
+        AtomicLong done = new AtomicLong();
+        AtomicLong read = new AtomicLong();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.submit(() -> IntStream.range(0, products.size()).parallel().forEach(i -> {
+                if (listener.isCancelled()) {
+                    throw new CancellationException();
+                }
+                try {
+                    hashes[i] = hash(products.get(i).getFile(), read);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                listener.progress(done.incrementAndGet(), products.size());
+            })).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            if (e.getCause() instanceof CancellationException) {
+                throw (CancellationException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        hashed = (int) read.get();
+        // Forget photos that are no longer in the catalog.
+        cache.keySet().retainAll(products.stream().map(product -> product.getFile().toString()).collect(Collectors.toSet()));
+
+        Map<String, String> owners = new HashMap<>();
+        int shared = 0;
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            product.setSharedImage(null);
+            String owner = owners.putIfAbsent(hashes[i], product.getImageName());
+            if (owner != null && !owner.equals(product.getImageName())) {
+                product.setSharedImage(owner);
+                shared++;
+            }
+        }
+        saveCache();
+        return shared;
+    }
+
+    private String hash(Path file, AtomicLong read) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+        String key = file.toString();
+        CachedHash cached = cache.get(key);
+        if (cached != null && cached.size == size && cached.modified == modified) {
+            return cached.hash;
+        }
+        String hash = sha256(file);
+        read.incrementAndGet();
+        cache.put(key, new CachedHash(size, modified, hash));
+        return hash;
+    }
+
+    private void loadCache() throws IOException {
+        cache.clear();
+        if (!Files.exists(cacheFile)) {
+            return;
+        }
+        for (String line : Files.readAllLines(cacheFile, StandardCharsets.UTF_8)) {
+            String[] values = line.split("\t");
+            if (values.length != 4) {
+                continue;
+            }
+            try {
+                cache.put(values[0], new CachedHash(Long.parseLong(values[1]), Long.parseLong(values[2]), values[3]));
+            } catch (NumberFormatException e) {
+                // A damaged line only means that this photo is read again.
+            }
+        }
+    }
+
+    private void saveCache() throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(cacheFile, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, CachedHash> entry : new TreeMap<>(cache).entrySet()) {
+                CachedHash value = entry.getValue();
+                writer.write(entry.getKey() + "\t" + value.size + "\t" + value.modified + "\t" + value.hash);
+                writer.newLine();
+            }
+        }
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static class CachedHash {
+
+        private final long size;
+        private final long modified;
+        private final String hash;
+
+        CachedHash(long size, long modified, String hash) {
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package importer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+
+/**
+ * Remembers which source file every image in the images folder was copied from, so unchanged images can be
+ * skipped on the next export. Stored as a tab separated text file next to products.csv.
+ */
+public class ImageManifest {
+
+    public static final String FILE_NAME = "images.manifest";
+    private static final String NONE = "-";
+
+    private final Path file;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public ImageManifest(Path file) {
+        this.file = file;
+    }
+
+    public void load() throws IOException {
+        entries.clear();
+        if (!Files.exists(file)) {
+            return;
+        }
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] values = line.split("\t");
+            if (values.length != 6 && values.length != 7) {
+                continue;
+            }
+            try {
+                entries.put(values[0], new Entry(values[1], values[2], Long.parseLong(values[3]), Long.parseLong(values[4]),
+                        orNull(values[5]), values.length == 7 ? orNull(values[6]) : null));
+            } catch (NumberFormatException e) {
+                // A damaged line only means that this image gets copied again.
+            }
+        }
+    }
+
+    public void save() throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Entry> entry : new TreeMap<>(entries).entrySet()) {
+                Entry value = entry.getValue();
+                writer.write(entry.getKey() + "\t" + value.sku + "\t" + value.source + "\t" + value.size + "\t"
+                        + value.modified + "\t" + orDash(value.hash) + "\t" + orDash(value.variant));
+                writer.newLine();
+            }
+        }
+    }
+
+    public Entry get(String target) {
+        return entries.get(target);
+    }
+
+    public void put(String target, Entry entry) {
+        entries.put(target, entry);
+    }
+
+    public List<String> retainTargets(Set<String> targets) {
+        List<String> removed = new ArrayList<>();
+        entries.keySet().forEach(target -> {
+            if (!targets.contains(target)) {
+                removed.add(target);
+            }
+        });
+        removed.forEach(entries::remove);
+        return removed;
+    }
+
+    public static Entry describe(String sku, Path source, boolean withHash, String variant) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+        return new Entry(sku, source.toString(), attributes.size(), attributes.lastModifiedTime().toMillis(),
+                withHash ? hash(source) : null, variant);
+    }
+
+    public static String hash(Path source) throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+            }
+        }
+        return Long.toHexString(crc.getValue());
+    }
+
+    private static String orNull(String value) {
+        return NONE.equals(value) ? null : value;
+    }
+
+    private static String orDash(String value) {
+        return value == null ? NONE : value;
+    }
+
+    public static class Entry {
+
+        private final String sku;
+        private final String source;
+        private final long size;
+        private final long modified;
+        private final String hash;
+        private final String variant;
+
+        public Entry(String sku, String source, long size, long modified, String hash, String variant) {
+            this.sku = sku;
+            this.source = source;
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+            this.variant = variant;
+        }
+
+        public String getSku() {
+            return sku;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getModified() {
+            return modified;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        /**
+         * How the image was processed, see {@link CopyStrategy#getVariant()}.
+         */
+        public String getVariant() {
+            return variant;
+        }
+
+        public Entry withHash(String hash) {
+            return new Entry(sku, source, size, modified, hash, variant);
+        }
+
+        public boolean sameFile(Entry other) {
+            return source.equals(other.source) && size == other.size && modified == other.modified
+                    && Objects.equals(variant, other.variant);
+        }
+    }
+}
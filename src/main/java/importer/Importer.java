@@ -1,27 +1,58 @@
 package importer;
 
 import entity.AdditionalImage;
+import entity.Category;
 import entity.Product;
+import config.SettingsLoader;
 import exception.AppException;
+import listener.ProgressListener;
+import metrics.MetricRegistry;
+import metrics.RunReport;
+import metrics.Timer;
+import printer.Field;
+import printer.Level;
 import printer.Printer;
-import printer.PrinterGUI;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class Importer {
 
+    public static final int DEFAULT_COPY_THREADS = 4;
+    public static final String NAMES_FILE = "names.txt";
+    private static final int PROGRESS_STEP = 256;
+    private static final String CSV_HEADER = "Type, sku, Regular price, Attribute 1 name, Attribute 1 value(s), Categories, Name, Images, Description";
+
     private String urlPrefix;
-    private List<Product> products;
+    private volatile List<Product> products;
+    private LiveCatalog catalog;
     private Path catalogLocation;
+    private Path outputDirectory;
     private Printer printer;
-    private static final Set<String> supportedExtensions = new HashSet<>(Set.of("jpg", "png", "jpeg"));
-
-    public Importer(PrinterGUI printer) {
+    private ExecutionMode scanMode = ExecutionMode.PARALLEL;
+    private ExecutionMode copyMode = ExecutionMode.PARALLEL;
+    private int copyThreads = DEFAULT_COPY_THREADS;
+    private CopyMethod copyMethod = CopyMethod.COPY;
+    private boolean incrementalCopy = true;
+    private boolean manifestHash;
+    private boolean deleteOrphans;
+    private boolean catalogIndex = true;
+    private int imageMaxSize;
+    private int imageQuality = ResizeCopyStrategy.DEFAULT_QUALITY;
+    private boolean shareImages;
+    private List<Product> sharedImagesOf;
+    private boolean runReport = true;
+    private final CatalogValidator validator = new CatalogValidator();
+    private final MetricRegistry metrics = MetricRegistry.getDefault();
+
+    public Importer(Printer printer) {
         this.printer = printer;
     }
 
@@ -33,6 +64,111 @@ public class Importer {
         this.urlPrefix = urlPrefix;
     }
 
+    public ExecutionMode getScanMode() {
+        return scanMode;
+    }
+
+    public void setScanMode(ExecutionMode scanMode) {
+        this.scanMode = scanMode;
+    }
+
+    public ExecutionMode getCopyMode() {
+        return copyMode;
+    }
+
+    public void setCopyMode(ExecutionMode copyMode) {
+        this.copyMode = copyMode;
+    }
+
+    public int getCopyThreads() {
+        return copyThreads;
+    }
+
+    public void setCopyThreads(int copyThreads) {
+        this.copyThreads = copyThreads;
+    }
+
+    public CopyMethod getCopyMethod() {
+        return copyMethod;
+    }
+
+    public void setCopyMethod(CopyMethod copyMethod) {
+        this.copyMethod = copyMethod;
+    }
+
+    public boolean isIncrementalCopy() {
+        return incrementalCopy;
+    }
+
+    public void setIncrementalCopy(boolean incrementalCopy) {
+        this.incrementalCopy = incrementalCopy;
+    }
+
+    public boolean isManifestHash() {
+        return manifestHash;
+    }
+
+    public void setManifestHash(boolean manifestHash) {
+        this.manifestHash = manifestHash;
+    }
+
+    public boolean isDeleteOrphans() {
+        return deleteOrphans;
+    }
+
+    public void setDeleteOrphans(boolean deleteOrphans) {
+        this.deleteOrphans = deleteOrphans;
+    }
+
+    public boolean isCatalogIndex() {
+        return catalogIndex;
+    }
+
+    public void setCatalogIndex(boolean catalogIndex) {
+        this.catalogIndex = catalogIndex;
+    }
+
+    public int getImageMaxSize() {
+        return imageMaxSize;
+    }
+
+    /**
+     * Largest width or height of exported images in pixels, 0 exports them unchanged.
+     */
+    public void setImageMaxSize(int imageMaxSize) {
+        this.imageMaxSize = imageMaxSize;
+    }
+
+    public int getImageQuality() {
+        return imageQuality;
+    }
+
+    public void setImageQuality(int imageQuality) {
+        this.imageQuality = imageQuality;
+    }
+
+    public boolean isShareImages() {
+        return shareImages;
+    }
+
+    /**
+     * Export identical photos of different products once and point all of them at the same file.
+     */
+    public void setShareImages(boolean shareImages) {
+        this.shareImages = shareImages;
+    }
+
+    public boolean isRunReport() {
+        return runReport;
+    }
+
+    /**
+     * Whether every job writes a {@link RunReport} into the reports folder of the output folder.
+     */
+    public void setRunReport(boolean runReport) {
+        this.runReport = runReport;
+    }
+
     public Path getCatalogLocation() {
         return catalogLocation;
     }
@@ -41,30 +177,169 @@ public class Importer {
         this.catalogLocation = catalogLocation;
     }
 
+    /**
+     * Folder for products.csv, the images folder and their manifests. The parent of the catalog by default.
+     */
+    public Path getOutputDirectory() {
+        if (outputDirectory == null && catalogLocation != null) {
+            return catalogLocation.getParent();
+        }
+        return outputDirectory;
+    }
+
+    public void setOutputDirectory(Path outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
+
+    public void applySettings(SettingsLoader settings) {
+        setUrlPrefix(settings.getString(SettingsLoader.KEY_URL_PREFIX));
+        setScanMode(settings.getEnum(SettingsLoader.KEY_SCAN_MODE, ExecutionMode.class, ExecutionMode.PARALLEL));
+        setCopyMode(settings.getEnum(SettingsLoader.KEY_COPY_MODE, ExecutionMode.class, ExecutionMode.PARALLEL));
+        setCopyThreads(settings.getInt(SettingsLoader.KEY_COPY_THREADS, DEFAULT_COPY_THREADS));
+        setCopyMethod(settings.getEnum(SettingsLoader.KEY_COPY_METHOD, CopyMethod.class, CopyMethod.COPY));
+        setIncrementalCopy(settings.getBoolean(SettingsLoader.KEY_INCREMENTAL_COPY, true));
+        setManifestHash(settings.getBoolean(SettingsLoader.KEY_MANIFEST_HASH, false));
+        setDeleteOrphans(settings.getBoolean(SettingsLoader.KEY_DELETE_ORPHANS, false));
+        setCatalogIndex(settings.getBoolean(SettingsLoader.KEY_CATALOG_INDEX, true));
+        setImageMaxSize(settings.getInt(SettingsLoader.KEY_IMAGE_MAX_SIZE, 0));
+        setImageQuality(settings.getInt(SettingsLoader.KEY_IMAGE_QUALITY, ResizeCopyStrategy.DEFAULT_QUALITY));
+        setShareImages(settings.getBoolean(SettingsLoader.KEY_SHARE_IMAGES, false));
+        setRunReport(settings.getBoolean(SettingsLoader.KEY_RUN_REPORT, true));
+    }
+
     public void loadProducts() throws AppException {
+        loadProducts(ProgressListener.NONE);
+    }
+
+    public void loadProducts(ProgressListener listener) throws AppException {
+        loadCatalog(listener);
+        validate();
+    }
+
+    /**
+     * Loads the catalog without validating it.
+     */
+    public void loadCatalog(ProgressListener listener) throws AppException {
+        runJob("load", () -> {
+            readCatalog(listener);
+            return null;
+        }, "scan.");
+    }
+
+    public ValidationReport validate() throws AppException {
+        return runJob("validate", this::checkCatalog, "validate.products");
+    }
+
+    private void readCatalog(ProgressListener listener) throws AppException {
+        LiveCatalog loaded;
         try {
-            products = readProducts();
+            loaded = readProducts(listener);
         } catch (IOException e) {
             e.printStackTrace();
             throw new AppException("[ERROR] Can't read products!");
         }
-        printer.print("[INFO] Loaded " + products.size() + " products.");
-        checkProducts(products);
+        synchronized (this) {
+            catalog = loaded;
+            products = loaded.getProducts();
+        }
+        printer.info("Loaded {} products.", products.size());
+    }
+
+    private ValidationReport checkCatalog() throws AppException {
+        List<Product> products = this.products;
+        if (products == null) {
+            throw new AppException("[ERROR] Products are not loaded.");
+        }
+        return checkProducts(products);
+    }
+
+    public void reloadProducts() {
+        try {
+            loadProducts();
+        } catch (AppException e) {
+            printer.print(e.getMessage());
+        }
+    }
+
+    public synchronized void applyChanges(Collection<Path> files) {
+        if (catalog == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        Set<String> affected = catalog.apply(files);
+        products = catalog.getProducts();
+        checkProducts(catalog.getProducts(affected));
+        printer.info("Catalog updated: {} files changed, {} products", files.size(), products.size(),
+                Field.duration(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+    }
+
+    public synchronized List<Path> getKnownFiles(Path directory) {
+        return catalog == null ? Collections.emptyList() : catalog.getFilesUnder(directory);
     }
 
     public void saveImages() throws AppException {
-        products.forEach(product -> {
+        saveImages(ProgressListener.NONE);
+    }
+
+    /**
+     * Copies the images and returns the check of the images folder.
+     */
+    public ValidationReport saveImages(ProgressListener listener) throws AppException {
+        return runJob("images", () -> copyImages(listener), "copy.", "images.share", "validate.images");
+    }
+
+    private ValidationReport copyImages(ProgressListener listener) throws AppException {
+        List<Product> products = this.products;
+        if (products == null || catalogLocation == null) {
+            throw new AppException("[ERROR] Products are not loaded.");
+        }
+
+        shareImages(products, listener);
+        ResizeCopyStrategy resize = imageMaxSize > 0 ? new ResizeCopyStrategy(imageMaxSize, imageQuality) : null;
+        // Resizing is bound by the CPU rather than the disk.
+        int threads = resize == null ? copyThreads : Math.max(copyThreads, Runtime.getRuntime().availableProcessors());
+        ImageCopier copier = new ImageCopier(printer, copyMode, threads);
+        copier.setCopyStrategy(resize != null ? resize : copyMethod.createStrategy());
+        ImageManifest manifest = null;
+        if (incrementalCopy) {
+            manifest = new ImageManifest(getOutputDirectory().resolve(ImageManifest.FILE_NAME));
             try {
-                copyImage(product);
+                manifest.load();
             } catch (IOException e) {
-                e.printStackTrace();
+                printer.warn("Can't read image manifest, all images will be copied.");
             }
-        });
+            copier.setManifest(manifest, manifestHash);
+        }
+        copier.setDeleteOrphans(deleteOrphans);
+        copier.setProgressListener(listener);
 
-        printer.print("[INFO] Images saved to \\images folder");
+        try {
+            copier.copy(products, getImagesDirectory());
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new AppException("[ERROR] Can't create images folder.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppException("[WARN] Saving images is interrupted.");
+        } finally {
+            saveManifest(manifest);
+        }
+
+        metrics.counter("copy.copied").add(copier.getCopied());
+        metrics.counter("copy.skipped").add(copier.getSkipped());
+        metrics.counter("copy.failed").add(copier.getFailed());
+        metrics.counter("copy.deleted").add(copier.getDeleted());
+        printer.info("Copied {} images, {} unchanged, {} failed.", copier.getCopied(), copier.getSkipped(), copier.getFailed());
+        if (resize != null && resize.getSourceBytes() > 0) {
+            printer.info("Resized images: {} KB -> {} KB", resize.getSourceBytes() / 1024, resize.getTargetBytes() / 1024);
+        }
+        if (deleteOrphans) {
+            printer.info("Deleted {} orphaned images.", copier.getDeleted());
+        }
+        printer.info("Images saved to {}", getImagesDirectory());
 
         try {
-            checkImages(products);
+            return checkImages(products);
         } catch (IOException e) {
             e.printStackTrace();
             throw new AppException("[WARN] Can't check saved images.");
@@ -72,6 +347,18 @@ public class Importer {
     }
 
     public void saveProductsToCSV() throws AppException {
+        saveProductsToCSV(ProgressListener.NONE);
+    }
+
+    public void saveProductsToCSV(ProgressListener listener) throws AppException {
+        runJob("csv", () -> {
+            writeCsv(listener);
+            return null;
+        }, "csv.", "images.share");
+    }
+
+    private void writeCsv(ProgressListener listener) throws AppException {
+        List<Product> products = this.products;
 
         if (urlPrefix == null || urlPrefix.isBlank()) {
             throw new AppException("[ERROR] Url prefix is no set.");
@@ -85,42 +372,67 @@ public class Importer {
             throw new AppException("[ERROR] Catalog is not selected.");
         }
 
-        StringBuilder stringBuilder = new StringBuilder();
-        stringBuilder.append("Type, sku, Regular price, Attribute 1 name, Attribute 1 value(s), Categories, Name, Images, Description\n");
-        products.forEach(product -> {
-            stringBuilder
-                    .append("virtual")
-                    .append(",")
-                    .append(product.getSKU())
-                    .append(",").append(product.getWeight())
-                    .append(",").append("Вес,")
-                    .append(product.getWeight())
-                    .append(",")
-                    .append(product.getCategories())
-                    .append(",")
-                    .append(product.getName()).append(" (").append(product.getSKU()).append(")")
-                    .append(",").append(urlPrefix).append(product.getSKU()).append(".").append(product.getFileExtension())
-                    .append(",")
-                    .append(product.getDescription())
-                    .append("\n");
-        });
+        Path csvFile = getOutputDirectory().resolve("products.csv");
         try {
-            Files.write(Paths.get(catalogLocation.getParent().toString() + "\\products.csv"), stringBuilder.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE);
-            printer.print("[INFO] Csv file saved: " + catalogLocation.getParent().toString() + "\\products.csv");
+            Files.createDirectories(csvFile.getParent());
         } catch (IOException e) {
-            printer.print("[ERROR] Error occurred while saving csv file.");
             e.printStackTrace();
+            throw new AppException("[ERROR] Can't create output folder.");
         }
+        shareImages(products, listener);
+        try (CsvWriter writer = new CsvWriter(csvFile); Timer.Context ignored = metrics.timer("csv.write").time()) {
+            writer.writeLine(CSV_HEADER);
+            int rows = 0;
+            for (Product product : products) {
+                if (++rows % PROGRESS_STEP == 0) {
+                    if (listener.isCancelled()) {
+                        throw new CancellationException();
+                    }
+                    listener.progress(rows, products.size());
+                }
+                writer.writeRow(
+                        "virtual",
+                        product.getSKU(),
+                        product.getWeight(),
+                        "Вес",
+                        product.getWeight(),
+                        product.getCategories(),
+                        product.getName() + " (" + product.getSKU() + ")",
+                        urlPrefix + product.getImageName(),
+                        product.getDescription());
+            }
+            listener.progress(products.size(), products.size());
+            metrics.counter("csv.rows").add(products.size());
+        } catch (CancellationException e) {
+            try {
+                Files.deleteIfExists(csvFile);
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+            throw e;
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new AppException("[ERROR] Error occurred while saving csv file.");
+        }
+        printer.info("Csv file saved: {}", csvFile);
 
         //saveCategories();
     }
 
     public void showProducts() {
+        List<Product> products = this.products;
         if (products == null) {
             return;
         }
-        products.forEach(product -> printer.print(product.toString()));
-        printer.print("[INFO] Number of products: " + products.size());
+        products.forEach(product -> printer.print(Level.INFO, product::toString));
+        printer.info("Number of products: {}", products.size());
+    }
+
+    /**
+     * Whether a catalog is loaded, without copying the product list like {@link #getProducts()} does.
+     */
+    public boolean hasCatalog() {
+        return products != null;
     }
 
     public List<Product> getProducts() {
@@ -134,22 +446,13 @@ public class Importer {
 
         Set<String> categories = new HashSet<>();
 
-        products.forEach(product -> {
-            List<String> productCategories = product.getRawCategories();
-            StringBuilder category = new StringBuilder();
-            for (int i = productCategories.size() - 1; i >= 0; i--) {
-                category.append(productCategories.get(i)).append("$");
-                for (int j = i; j < productCategories.size(); j++) {
-                    category.append(productCategories.get(j).replace(" ", "-").toLowerCase());
-                    if (j != productCategories.size() - 1) {
-                        category.append("-");
-                    }
-                }
-                if (i != 0) {
-                    category.append("/");
-                }
+        products.stream().map(Product::getCategory).distinct().forEach(node -> {
+            String category = "";
+            for (Category parent = node; !parent.isRoot(); parent = parent.getParent()) {
+                String part = parent.getName() + "$" + parent.getSlug();
+                category = category.isEmpty() ? part : part + "/" + category;
             }
-            categories.add(category.toString());
+            categories.add(category);
         });
 
         StringBuilder result = new StringBuilder();
@@ -159,141 +462,170 @@ public class Importer {
         });
 
         try {
-            Files.write(Paths.get(catalogLocation.getParent().toString() + "\\categories.txt"), result.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE);
-            printer.print("[INFO] Txt file saved: " + catalogLocation.getParent().toString() + "\\categories.txt");
+            Path file = getOutputDirectory().resolve("categories.txt");
+            Files.write(file, result.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE);
+            printer.info("Txt file saved: {}", file);
         } catch (IOException e) {
-            printer.print("[ERROR] Error occurred while saving txt file.");
+            printer.error("Error occurred while saving txt file.");
             e.printStackTrace();
         }
     }
 
-    private void checkSKUsUnique(List<Product> products) {
-        List<String> uniqueSKUs = new ArrayList<>();
-        products.forEach(product -> {
-            String sku = product.getSKU();
-            if (!uniqueSKUs.contains(sku)) {
-                uniqueSKUs.add(sku);
-            } else {
-                //System.out.println("[WARN] Product has not unique SKU: " + product);
-                printer.print("[WARN] Product has not unique SKU: " + product);
+    /**
+     * Runs the image comparison once per loaded product list; the CSV and the images use the same result.
+     */
+    private synchronized void shareImages(List<Product> products, ProgressListener listener) throws AppException {
+        if (!shareImages) {
+            if (sharedImagesOf != null) {
+                products.forEach(product -> product.setSharedImage(null));
+                sharedImagesOf = null;
             }
-        });
+            return;
+        }
+        if (sharedImagesOf == products) {
+            return;
+        }
+        long start = System.nanoTime();
+        ImageDeduplicator deduplicator = new ImageDeduplicator(getOutputDirectory().resolve(ImageDeduplicator.FILE_NAME), copyThreads);
+        try {
+            int shared = deduplicator.deduplicate(products, listener);
+            sharedImagesOf = products;
+            printer.info("{} products share the image of another product, {} photos hashed.", shared, deduplicator.getHashed(),
+                    Field.duration(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        } catch (IOException e) {
+            products.forEach(product -> product.setSharedImage(null));
+            printer.warn("Can't compare images, every product gets its own image: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppException("[WARN] Comparing images is interrupted.");
+        } finally {
+            metrics.timer("images.share").recordSince(start);
+        }
     }
 
-    private void checkImages(List<Product> products) throws IOException {
-        List<Path> files = listFilesUsingFileWalk(Paths.get(catalogLocation.getParent().toString() + "\\images\\").toString());
-        printer.print("[INFO] Number of image files: " + files.size());
-        List<String> skus = files.stream().map(file ->
-                file.getFileName()
-                        .toString()
-                        .split("\\.")[0]
-                        .toLowerCase(new Locale("ru", "RU")))
-                .collect(Collectors.toList());
-        List<String> productSkus = products
-                .stream()
-                .map(product -> product.getSKU().toLowerCase(new Locale("ru", "RU")))
-                .collect(Collectors.toList());
-        productSkus.forEach(productSku -> {
-            if (!skus.contains(productSku)) {
-                printer.print("[ERROR] Product doesn't have image file: " + productSku);
-            }
-        });
+    private ValidationReport checkImages(List<Product> products) throws IOException {
+        List<Path> files = listFilesUsingFileWalk(getImagesDirectory().toString());
+        printer.info("Number of image files: {}", files.size());
+        ValidationReport report;
+        try (Timer.Context ignored = metrics.timer("validate.images").time()) {
+            report = validator.validateImages(products, files);
+        }
+        report.get(ValidationReport.Problem.MISSING_IMAGE).forEach(product ->
+                printer.error("Product doesn't have image file: {}", Field.sku(product.getSKU())));
+        return report;
     }
 
-    private void checkProducts(List<Product> products) {
-        products.forEach(product -> {
-            try {
-                Float.parseFloat(product.getWeight().trim());
-            } catch (NumberFormatException e) {
-                printer.print("[WARN] Product has wrong weight value: " + product.lessInfo());
-            }
-        });
-        checkSKUsUnique(products);
+    private ValidationReport checkProducts(List<Product> products) {
+        long start = System.nanoTime();
+        ValidationReport report = validator.validateProducts(products);
+        metrics.timer("validate.products").recordSince(start);
+        report.get(ValidationReport.Problem.WRONG_WEIGHT).forEach(product ->
+                printer.warn("Product has wrong weight value: {}", product.lessInfo()));
+        report.get(ValidationReport.Problem.DUPLICATE_SKU).forEach(product ->
+                printer.warn("Product has not unique SKU: {}", product));
+        printer.info("Checked {} products: {} wrong weights, {} duplicate SKUs.", report.getChecked(),
+                report.getCount(ValidationReport.Problem.WRONG_WEIGHT), report.getCount(ValidationReport.Problem.DUPLICATE_SKU),
+                Field.duration(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        return report;
     }
 
-    private void copyImage(Product product) throws IOException {
-        Path original = product.getFile();
-        Path copied = Paths.get(catalogLocation.getParent().toString() + "\\images\\");
-        if (!Files.exists(copied)) {
-            try {
-                Files.createDirectories(copied);
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+    private void saveManifest(ImageManifest manifest) {
+        if (manifest == null) {
+            return;
+        }
+        try {
+            manifest.save();
+        } catch (IOException e) {
+            printer.warn("Can't save image manifest.");
+            e.printStackTrace();
         }
-        Files.copy(original, Paths.get(catalogLocation.getParent().toString() + "\\images\\" + product.getSKU() + "." + product.getFileExtension()), StandardCopyOption.REPLACE_EXISTING);
     }
 
-    private List<Product> readProducts() throws IOException, AppException {
-        List<Path> files = listFilesUsingFileWalk(catalogLocation.toString());
-        List<Product> products = new ArrayList<>();
-        List<AdditionalImage> additionalImages = new ArrayList<>();
+    public Path getImagesDirectory() {
+        return getOutputDirectory().resolve("images");
+    }
+
+    private LiveCatalog readProducts(ProgressListener listener) throws IOException, AppException {
         Map<String, String> names = readNames();
+        ProductParser parser = new ProductParser(catalogLocation, names == null ? null : new NameResolver(names));
+        parser.setProgressListener(listener);
+        ScanResult result;
+        try (Timer.Context ignored = metrics.timer("scan.walk").time()) {
+            result = scan(parser);
+        }
+        metrics.counter("scan.products").add(result.getProducts().size());
+        metrics.counter("scan.additional_images").add(result.getAdditionalImages().size());
+        try (Timer.Context ignored = metrics.timer("scan.attach").time()) {
+            addAdditionalImagesToProducts(result.getProducts(), result.getAdditionalImages());
+        }
+        return new LiveCatalog(parser, result.getProducts(), result.getAdditionalImages());
+    }
 
-        files.forEach(file -> {
-            String fileExtension = file.getFileName().toString().split("\\.")[1];
-            if (supportedExtensions.contains(fileExtension.toLowerCase())) {
-                if (file.getFileName().toString().split(" ").length <= 1) {
-                    AdditionalImage image = new AdditionalImage();
-                    String fileName = file.getFileName().toString();
-                    image.setFile(file);
-                    if (fileName.contains("_")) {
-                        String[] info = fileName.split("_");
-                        image.setSKU(info[0]);
-//                        try {
-//                            image.setNumber(Integer.parseInt(info[1]));
-//                        } catch (NumberFormatException e) {
-//                            printer.print("[ERROR] Can't parse number value of image: " + file.toString());
-//                        }
-                    } else {
-                        image.setSKU(fileName.split("\\.")[0]);
-//                        image.setNumber(0);
-                    }
-                    additionalImages.add(image);
-                } else {
-                    Product product = new Product();
-                    List<String> categories = getAllParents(file, catalogLocation.getFileName().toString()).stream().map(path -> path.getFileName().toString()).collect(Collectors.toList());
-                    List<String> info = Arrays.asList(file.getFileName().toString().split(" "));
-
-                    product.setCategories(categories);
-                    product.setSKU(info.get(0));
-                    product.setWeight(info.get(1).replace(",", "."));
-                    product.setFile(file);
-
-                    StringBuilder description = new StringBuilder();
-                    for (int i = 3; i < info.size(); i++) {
-                        description.append(info.get(i)).append(" ");
-                    }
+    private ScanResult scan(ProductParser parser) throws IOException {
+        if (scanMode != ExecutionMode.PARALLEL) {
+            return new SequentialCatalogScanner().scan(catalogLocation, parser);
+        }
+        if (!catalogIndex) {
+            return new ParallelCatalogScanner().scan(catalogLocation, parser);
+        }
+        // Kept out of the catalog: writing it there would change the modification time of the root folder
+        // and wake up the catalog watcher on every load.
+        Path indexFile = getOutputDirectory().resolve(CatalogIndex.FILE_NAME);
+        CatalogIndex previous = null;
+        try {
+            previous = CatalogIndex.load(indexFile);
+        } catch (IOException e) {
+            printer.warn("Can't read catalog index, the whole catalog will be parsed: {}", e.getMessage());
+        }
+        ParallelCatalogScanner scanner = new ParallelCatalogScanner(ForkJoinPool.commonPool(), previous);
+        ScanResult result = scanner.scan(catalogLocation, parser);
+        metrics.counter("scan.directories").add(scanner.getIndex().size());
+        metrics.counter("scan.directories_reused").add(scanner.getReused());
+        printer.info("Catalog index: {} of {} folders unchanged.", scanner.getReused(), scanner.getIndex().size());
+        try {
+            scanner.getIndex().save(indexFile);
+        } catch (IOException e) {
+            printer.warn("Can't save catalog index: {}", e.getMessage());
+        }
+        return result;
+    }
 
-                    product.setDescription(description.toString().split("\\.")[0].trim());
-
-                    if (names == null) {
-                        product.setName("Unknown");
-                    } else {
-                        names.keySet().forEach(key -> {
-                            if (product.getSKU().startsWith(key)) {
-                                product.setName(names.get(key));
-                            }
-                        });
-                        if (product.getName() == null) {
-                            product.setName("Unknown");
-                        }
-                    }
-                    products.add(product);
+    /**
+     * Runs a public operation under the timer "job.name" and writes its run report, also when it fails.
+     * The report contains the metrics starting with the given prefixes.
+     */
+    private <T> T runJob(String name, Job<T> job, String... metricPrefixes) throws AppException {
+        RunReport report = runReport ? RunReport.start(name, metrics, metricPrefixes) : null;
+        String result = "FAILED";
+        try (Timer.Context ignored = metrics.timer("job." + name).time()) {
+            T value = job.run();
+            result = "OK";
+            return value;
+        } catch (CancellationException e) {
+            result = "CANCELLED";
+            throw e;
+        } finally {
+            if (report != null && getOutputDirectory() != null) {
+                try {
+                    Path file = report.finish(getOutputDirectory().resolve(RunReport.DIRECTORY), result);
+                    printer.debug("Run report saved: {}", file);
+                } catch (IOException e) {
+                    printer.warn("Can't save run report: {}", e.getMessage());
                 }
             }
-        });
-        addAdditionalImagesToProducts(products, additionalImages);
-        return products;
+        }
     }
 
     private void addAdditionalImagesToProducts(List<Product> products, List<AdditionalImage> images) {
+        AdditionalImageIndex index = new AdditionalImageIndex(images);
+        boolean debug = printer.isEnabled(Level.DEBUG);
         products.forEach(product -> {
-            images.stream().filter(image -> image.getSKU().equals(product.getSKU())).forEach(image -> {
+            index.get(product.getSKU()).forEach(image -> {
                 product.getAdditionalImages().add(image.getFile());
-                printer.print("[DEBUG] Added additional image (" + image.getFile().getFileName().toString() + ") to product: " + product.getSKU());
+                if (debug) {
+                    printer.debug("Added additional image ({}) to product: {}", Field.path(image.getFile().getFileName()), Field.sku(product.getSKU()));
+                }
             });
-
         });
     }
 
@@ -305,25 +637,14 @@ public class Importer {
         }
     }
 
-    private List<Path> getAllParents(Path path, String nameOfCatalogFolder) {
-        List<Path> result = new ArrayList<>();
-        Path parent = path.getParent();
-        while (parent != null && !nameOfCatalogFolder.equals(parent.getFileName().toString())) {
-            result.add(parent);
-            parent = parent.getParent();
-        }
-        return result;
-    }
-
     private Map<String, String> readNames() {
-        Path path = Paths.get(catalogLocation.toString() + "\\names.txt");
+        Path path = catalogLocation.resolve(NAMES_FILE);
 
         Stream<String> lines;
         try {
             lines = Files.lines(path);
         } catch (IOException e) {
-            System.out.println("Can't read file: " + path.toString());
-            e.printStackTrace();
+            printer.warn("Can't read file {}: {}", Field.path(path), e.getMessage());
             return null;
         }
 
@@ -336,4 +657,8 @@ public class Importer {
         lines.close();
         return names;
     }
+
+    private interface Job<T> {
+        T run() throws AppException;
+    }
 }
@@ -0,0 +1,113 @@
+package importer;
+
+import exception.AppException;
+import listener.DoneListener;
+import listener.ProgressListener;
+import printer.Field;
+import printer.Printer;
+
+import javax.swing.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs one {@link Importer} operation off the EDT, the same way {@link Uploader} runs the upload.
+ */
+public class ImporterTask extends SwingWorker<Boolean, String> implements ProgressListener {
+
+    public interface Job {
+        void run(ProgressListener listener) throws AppException;
+    }
+
+    private final String name;
+    private final String unit;
+    private final Printer printer;
+    private final Job job;
+    private DoneListener doneListener;
+
+    private volatile long done;
+    private volatile long total = -1;
+    private volatile long startTime;
+    private volatile String errorMessage;
+
+    public ImporterTask(Printer printer, String name, String unit, Job job) {
+        super();
+        this.printer = printer;
+        this.name = name;
+        this.unit = unit;
+        this.job = job;
+    }
+
+    public void addDoneListener(DoneListener doneListener) {
+        this.doneListener = doneListener;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getDone() {
+        return done;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public String getThroughput() {
+        long elapsed = System.nanoTime() - startTime;
+        if (startTime == 0 || elapsed <= 0) {
+            return name + ": starting";
+        }
+        long perSecond = done * TimeUnit.SECONDS.toNanos(1) / elapsed;
+        return name + ": " + done + (total > 0 ? " / " + total : "") + " " + unit + ", " + perSecond + " " + unit + "/s";
+    }
+
+    @Override
+    public void progress(long done, long total) {
+        this.done = done;
+        this.total = total;
+        if (total > 0) {
+            setProgress((int) Math.min(100, done * 100 / total));
+        }
+    }
+
+    @Override
+    protected Boolean doInBackground() throws Exception {
+        startTime = System.nanoTime();
+        job.run(this);
+        return true;
+    }
+
+    @Override
+    protected void done() {
+        try {
+            get();
+            printer.info("{} finished", name, Field.duration(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime)));
+        } catch (InterruptedException e) {
+            printer.error("{} thread is interrupted!", name);
+            e.printStackTrace();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CancellationException) {
+                printer.info("{} is stopped", name);
+            } else if (e.getCause() instanceof AppException) {
+                errorMessage = e.getCause().getMessage();
+                printer.print(errorMessage);
+            } else {
+                errorMessage = "[ERROR] " + name + " failed: " + e.getCause();
+                printer.print(errorMessage);
+                e.printStackTrace();
+            }
+        } catch (CancellationException e) {
+            printer.info("{} is stopped", name);
+        }
+        if (doneListener != null) {
+            doneListener.done();
+        }
+    }
+}
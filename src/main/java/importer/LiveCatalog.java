@@ -0,0 +1,175 @@
+package importer;
+
+import entity.AdditionalImage;
+import entity.Product;
+import listener.ProgressListener;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loaded catalog indexed by file and SKU, so that a changed file only touches the products and
+ * additional images that share its SKU.
+ */
+public class LiveCatalog {
+
+    private final ProductParser parser;
+    private final List<Product> products;
+    private final Map<Path, Product> productsByFile = new HashMap<>();
+    private final Map<String, List<Product>> productsBySku = new HashMap<>();
+    private final Map<Path, AdditionalImage> imagesByFile = new HashMap<>();
+    private final AdditionalImageIndex imageIndex;
+
+    public LiveCatalog(ProductParser parser, List<Product> products, List<AdditionalImage> additionalImages) {
+        this.parser = parser;
+        this.products = new ArrayList<>(products);
+        this.imageIndex = new AdditionalImageIndex(additionalImages);
+        parser.setProgressListener(ProgressListener.NONE);
+        products.forEach(this::index);
+        additionalImages.forEach(image -> imagesByFile.put(image.getFile(), image));
+    }
+
+    public List<Product> getProducts() {
+        return new ArrayList<>(products);
+    }
+
+    public List<Product> getProducts(Collection<String> skus) {
+        List<Product> result = new ArrayList<>();
+        skus.forEach(sku -> result.addAll(productsBySku.getOrDefault(sku, Collections.emptyList())));
+        return result;
+    }
+
+    /**
+     * Re-reads the given files (added, changed or deleted) and returns the SKUs that were affected.
+     */
+    public Set<String> apply(Collection<Path> files) {
+        Set<String> affected = new HashSet<>();
+        // Product.equals compares SKUs, duplicates have to be told apart by identity.
+        Set<Product> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        ScanResult added = new ScanResult();
+
+        for (Path file : files) {
+            Product product = productsByFile.remove(file);
+            if (product != null) {
+                removed.add(product);
+                affected.add(product.getSKU());
+                List<Product> sameSku = productsBySku.get(product.getSKU());
+                sameSku.removeIf(other -> other == product);
+                if (sameSku.isEmpty()) {
+                    productsBySku.remove(product.getSKU());
+                }
+            }
+            AdditionalImage image = imagesByFile.remove(file);
+            if (image != null) {
+                imageIndex.remove(image);
+                affected.add(image.getSKU());
+            }
+            // Temporary files of editors and copy tools are not images, the parser skips them.
+            if (Files.isRegularFile(file)) {
+                parser.parse(file, added);
+            }
+        }
+
+        if (!removed.isEmpty()) {
+            products.removeIf(removed::contains);
+        }
+        ScanOrder scanOrder = new ScanOrder();
+        added.getProducts().forEach(product -> {
+            int position = Collections.binarySearch(products, product, scanOrder);
+            products.add(position < 0 ? -position - 1 : position, product);
+            index(product);
+            affected.add(product.getSKU());
+        });
+        added.getAdditionalImages().forEach(image -> {
+            imageIndex.add(image);
+            imagesByFile.put(image.getFile(), image);
+            affected.add(image.getSKU());
+        });
+
+        // Products are shared with the table and running exports, their image lists are replaced, not changed.
+        affected.forEach(sku -> productsBySku.getOrDefault(sku, Collections.emptyList()).forEach(product -> {
+            List<Path> images = new ArrayList<>();
+            imageIndex.get(sku).forEach(image -> images.add(image.getFile()));
+            product.setAdditionalImages(images);
+        }));
+        return affected;
+    }
+
+    public List<Path> getFilesUnder(Path directory) {
+        List<Path> files = new ArrayList<>();
+        productsByFile.keySet().forEach(file -> {
+            if (file.startsWith(directory)) {
+                files.add(file);
+            }
+        });
+        imagesByFile.keySet().forEach(file -> {
+            if (file.startsWith(directory)) {
+                files.add(file);
+            }
+        });
+        return files;
+    }
+
+    private void index(Product product) {
+        productsByFile.put(product.getFile(), product);
+        productsBySku.computeIfAbsent(product.getSKU(), sku -> new ArrayList<>(1)).add(product);
+    }
+
+    /**
+     * Order of a full scan: depth first, every folder in the order in which the file system lists it. Two files
+     * are compared by the positions of their paths in the deepest folder they share. Listings are read once.
+     */
+    private static class ScanOrder implements Comparator<Product> {
+
+        private final Map<Path, Map<String, Integer>> listings = new HashMap<>();
+
+        @Override
+        public int compare(Product first, Product second) {
+            Path a = first.getFile();
+            Path b = second.getFile();
+            int count = Math.min(a.getNameCount(), b.getNameCount());
+            int i = 0;
+            while (i < count && a.getName(i).equals(b.getName(i))) {
+                i++;
+            }
+            if (i == count) {
+                return Integer.compare(a.getNameCount(), b.getNameCount());
+            }
+            Path directory = a;
+            for (int level = a.getNameCount(); level > i; level--) {
+                directory = directory.getParent();
+            }
+            String nameA = a.getName(i).toString();
+            String nameB = b.getName(i).toString();
+            Map<String, Integer> listing = listing(directory);
+            int order = Integer.compare(listing.getOrDefault(nameA, Integer.MAX_VALUE), listing.getOrDefault(nameB, Integer.MAX_VALUE));
+            return order != 0 ? order : nameA.compareTo(nameB);
+        }
+
+        private Map<String, Integer> listing(Path directory) {
+            return listings.computeIfAbsent(directory, key -> {
+                Map<String, Integer> positions = new HashMap<>();
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(key)) {
+                    for (Path entry : stream) {
+                        positions.put(entry.getFileName().toString(), positions.size());
+                    }
+                } catch (IOException e) {
+                    // A folder that is gone has no order, its files go last.
+                }
+                return positions;
+            });
+        }
+    }
+}
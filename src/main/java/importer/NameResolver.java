@@ -0,0 +1,48 @@
+package importer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Prefix trie over the entries of names.txt. A SKU resolves to the name of the longest matching prefix.
+ * The trie is not modified after construction, so one instance can be shared by all scan threads.
+ */
+public class NameResolver {
+
+    private final Node root = new Node();
+
+    public NameResolver(Map<String, String> names) {
+        names.forEach(this::put);
+    }
+
+    public String resolve(String sku) {
+        Node node = root;
+        String match = root.name;
+        for (int i = 0; i < sku.length() && node.children != null; i++) {
+            node = node.children.get(sku.charAt(i));
+            if (node == null) {
+                break;
+            }
+            if (node.name != null) {
+                match = node.name;
+            }
+        }
+        return match;
+    }
+
+    private void put(String prefix, String name) {
+        Node node = root;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (node.children == null) {
+                node.children = new HashMap<>(4);
+            }
+            node = node.children.computeIfAbsent(prefix.charAt(i), c -> new Node());
+        }
+        node.name = name;
+    }
+
+    private static class Node {
+        private Map<Character, Node> children;
+        private String name;
+    }
+}
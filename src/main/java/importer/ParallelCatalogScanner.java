@@ -0,0 +1,190 @@
+package importer;
+
+import entity.Category;
+import entity.Product;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Walks every directory of the catalog in its own fork-join task and parses files as soon as they are listed.
+ * Results are joined in directory listing order, so the output is the same as {@link SequentialCatalogScanner}.
+ * <p>
+ * With a previous {@link CatalogIndex} a folder whose modification time is unchanged is replayed from the index,
+ * which costs one stat instead of listing and parsing it. Adding, removing or renaming an entry changes the
+ * modification time of its folder, everything the parser reads comes from names and paths.
+ */
+public class ParallelCatalogScanner implements CatalogScanner {
+
+    // Folders changed this recently may still change within the timestamp resolution of the file system.
+    private static final long UNSTABLE_MILLIS = 2000;
+
+    private final ForkJoinPool pool;
+    private final CatalogIndex previous;
+    private final CatalogIndex index = new CatalogIndex();
+    private final AtomicInteger reused = new AtomicInteger();
+    private Path catalogLocation;
+    private long startTime;
+
+    public ParallelCatalogScanner() {
+        this(ForkJoinPool.commonPool(), null);
+    }
+
+    public ParallelCatalogScanner(ForkJoinPool pool) {
+        this(pool, null);
+    }
+
+    public ParallelCatalogScanner(ForkJoinPool pool, CatalogIndex previous) {
+        this.pool = pool;
+        this.previous = previous;
+    }
+
+    @Override
+    public ScanResult scan(Path catalogLocation, ProductParser parser) throws IOException {
+        this.catalogLocation = catalogLocation;
+        this.startTime = System.currentTimeMillis();
+        try {
+            return pool.invoke(new DirectoryTask(catalogLocation, 0, parser));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Index of the last scan, to be passed to the next one.
+     */
+    public CatalogIndex getIndex() {
+        return index;
+    }
+
+    public int getReused() {
+        return reused.get();
+    }
+
+    private class DirectoryTask extends RecursiveTask<ScanResult> {
+
+        private final Path directory;
+        private final int depth;
+        private final ProductParser parser;
+
+        DirectoryTask(Path directory, int depth, ProductParser parser) {
+            this.directory = directory;
+            this.depth = depth;
+            this.parser = parser;
+        }
+
+        @Override
+        protected ScanResult compute() {
+            // Either parsed files or forked subdirectories, kept in listing order.
+            List<Object> parts = new ArrayList<>();
+            String key = catalogLocation.relativize(directory).toString();
+
+            try {
+                // Read before listing, a change made during the listing then shows up on the next scan.
+                long modified = Files.readAttributes(directory, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS)
+                        .lastModifiedTime().toMillis();
+                CatalogIndex.Directory cached = previous == null ? null : previous.get(key);
+                if (cached != null && cached.getModified() == modified) {
+                    replay(cached, parts);
+                    reused.incrementAndGet();
+                    index.put(key, cached);
+                } else {
+                    List<CatalogIndex.Entry> entries = list(parts);
+                    index.put(key, new CatalogIndex.Directory(startTime - modified < UNSTABLE_MILLIS ? -1 : modified, entries));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            ScanResult result = new ScanResult();
+            for (Object part : parts) {
+                if (part instanceof DirectoryTask) {
+                    result.addAll(((DirectoryTask) part).join());
+                } else {
+                    result.addAll((ScanResult) part);
+                }
+            }
+            return result;
+        }
+
+        private List<CatalogIndex.Entry> list(List<Object> parts) throws IOException {
+            List<CatalogIndex.Entry> entries = new ArrayList<>();
+            ScanResult files = null;
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path entry : stream) {
+                    String name = entry.getFileName().toString();
+                    if (isDirectoryNoFollow(entry)) {
+                        if (depth + 1 < MAX_DEPTH) {
+                            fork(entry, parts);
+                            files = null;
+                            entries.add(new CatalogIndex.Entry(CatalogIndex.Entry.DIRECTORY, name, null, null, null));
+                        }
+                    } else if (!Files.isDirectory(entry)) {
+                        if (files == null) {
+                            files = new ScanResult();
+                            parts.add(files);
+                        }
+                        int products = files.getProducts().size();
+                        int images = files.getAdditionalImages().size();
+                        parser.parse(entry, files);
+                        if (files.getProducts().size() > products) {
+                            Product product = files.getProducts().get(products);
+                            entries.add(new CatalogIndex.Entry(CatalogIndex.Entry.PRODUCT, name, product.getSKU(),
+                                    product.getWeight(), product.getDescription()));
+                        } else if (files.getAdditionalImages().size() > images) {
+                            entries.add(new CatalogIndex.Entry(CatalogIndex.Entry.IMAGE, name,
+                                    files.getAdditionalImages().get(images).getSKU(), null, null));
+                        }
+                    }
+                }
+            }
+            return entries;
+        }
+
+        private void replay(CatalogIndex.Directory cached, List<Object> parts) {
+            ScanResult files = null;
+            Category category = null;
+            for (CatalogIndex.Entry entry : cached.getEntries()) {
+                Path path = directory.resolve(entry.getName());
+                if (entry.getKind() == CatalogIndex.Entry.DIRECTORY) {
+                    fork(path, parts);
+                    files = null;
+                    continue;
+                }
+                if (files == null) {
+                    files = new ScanResult();
+                    parts.add(files);
+                }
+                if (entry.getKind() == CatalogIndex.Entry.PRODUCT) {
+                    if (category == null) {
+                        category = parser.getCategory(directory);
+                    }
+                    files.getProducts().add(parser.restoreProduct(path, entry.getSku(), entry.getWeight(),
+                            entry.getDescription(), category));
+                } else {
+                    files.getAdditionalImages().add(parser.restoreAdditionalImage(path, entry.getSku()));
+                }
+            }
+        }
+
+        private void fork(Path subdirectory, List<Object> parts) {
+            DirectoryTask task = new DirectoryTask(subdirectory, depth + 1, parser);
+            task.fork();
+            parts.add(task);
+        }
+
+        private boolean isDirectoryNoFollow(Path entry) throws IOException {
+            return Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS).isDirectory();
+        }
+    }
+}
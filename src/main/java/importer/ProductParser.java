@@ -0,0 +1,141 @@
+package importer;
+
+import entity.AdditionalImage;
+import entity.Category;
+import entity.Product;
+import listener.ProgressListener;
+import metrics.MetricRegistry;
+import metrics.Timer;
+import util.FileName;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ProductParser {
+
+    private final String nameOfCatalogFolder;
+    private final NameResolver names;
+    private final Category categories = Category.root();
+    private final Map<Path, Category> categoriesByDirectory = new ConcurrentHashMap<>();
+    private final AtomicLong parsed = new AtomicLong();
+    private final Timer parseTimer = MetricRegistry.getDefault().timer("scan.parse");
+    private final Timer namesTimer = MetricRegistry.getDefault().timer("scan.names");
+    private ProgressListener progressListener = ProgressListener.NONE;
+
+    public ProductParser(Path catalogLocation, NameResolver names) {
+        this.nameOfCatalogFolder = catalogLocation.getFileName().toString();
+        this.names = names;
+    }
+
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Adds the product or additional image named by the file to the result. Files that are not images, including
+     * names without an extension, are counted and skipped.
+     */
+    public void parse(Path file, ScanResult result) {
+        countFile();
+        long start = System.nanoTime();
+        FileName fileName = FileName.parse(file.getFileName().toString());
+        if (fileName.isImage()) {
+            if (fileName.isProduct()) {
+                result.getProducts().add(parseProduct(file, fileName));
+            } else {
+                result.getAdditionalImages().add(parseAdditionalImage(file, fileName));
+            }
+        }
+        parseTimer.recordSince(start);
+    }
+
+    /**
+     * Rebuilds a product stored in a {@link CatalogIndex}. The name is resolved again, names.txt may have changed.
+     */
+    public Product restoreProduct(Path file, String sku, String weight, String description, Category category) {
+        countFile();
+        Product product = new Product();
+        product.setCategory(category);
+        product.setSKU(sku);
+        product.setWeight(weight);
+        product.setFile(file);
+        product.setDescription(description);
+        product.setName(resolveName(sku));
+        return product;
+    }
+
+    public AdditionalImage restoreAdditionalImage(Path file, String sku) {
+        countFile();
+        AdditionalImage image = new AdditionalImage();
+        image.setFile(file);
+        image.setSKU(sku);
+        return image;
+    }
+
+    /**
+     * Category of the products in the given folder, shared by all of them.
+     */
+    public Category getCategory(Path directory) {
+        Category category = categoriesByDirectory.get(directory);
+        if (category == null) {
+            category = categories;
+            List<Path> parents = getAllParents(directory);
+            for (int i = parents.size() - 1; i >= 0; i--) {
+                category = category.child(parents.get(i).getFileName().toString());
+            }
+            categoriesByDirectory.put(directory, category);
+        }
+        return category;
+    }
+
+    private void countFile() {
+        if (progressListener.isCancelled()) {
+            throw new CancellationException();
+        }
+        progressListener.progress(parsed.incrementAndGet(), -1);
+    }
+
+    private AdditionalImage parseAdditionalImage(Path file, FileName fileName) {
+        AdditionalImage image = new AdditionalImage();
+        image.setFile(file);
+        image.setSKU(fileName.getSku());
+        return image;
+    }
+
+    private Product parseProduct(Path file, FileName fileName) {
+        Product product = new Product();
+        product.setCategory(getCategory(file.getParent()));
+        product.setSKU(fileName.getSku());
+        product.setWeight(fileName.getWeight());
+        product.setFile(file);
+        product.setExtension(fileName.getExtension());
+        product.setDescription(fileName.getDescription());
+        product.setName(resolveName(product.getSKU()));
+        return product;
+    }
+
+    private String resolveName(String sku) {
+        if (names == null) {
+            return "Unknown";
+        }
+        long start = System.nanoTime();
+        String name = names.resolve(sku);
+        namesTimer.recordSince(start);
+        return name == null ? "Unknown" : name;
+    }
+
+    private List<Path> getAllParents(Path directory) {
+        List<Path> result = new ArrayList<>();
+        Path parent = directory;
+        while (parent != null && !nameOfCatalogFolder.equals(parent.getFileName().toString())) {
+            result.add(parent);
+            parent = parent.getParent();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,101 @@
+package importer;
+
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.FTPListParseEngine;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Names and sizes of the files in the remote upload folder. Listed with MLSD when the server supports it
+ * and cached in a local file, so a second run within the TTL does not have to list the folder again.
+ */
+public class RemoteIndex {
+
+    public static final String FILE_NAME = "remote.index";
+    private static final int PAGE_SIZE = 1000;
+
+    private final Map<String, Long> sizes;
+
+    private RemoteIndex(Map<String, Long> sizes) {
+        this.sizes = sizes;
+    }
+
+    public static RemoteIndex list(FTPClient client) throws IOException {
+        FTPListParseEngine engine = client.hasFeature("MLST") ? client.initiateMListParsing() : client.initiateListParsing();
+        Map<String, Long> sizes = new HashMap<>();
+        while (engine.hasNext()) {
+            for (FTPFile file : engine.getNext(PAGE_SIZE)) {
+                if (file != null && file.isFile()) {
+                    sizes.putIfAbsent(file.getName(), file.getSize());
+                }
+            }
+        }
+        return new RemoteIndex(sizes);
+    }
+
+    /**
+     * Returns the cached index, or null if there is none for this server, it is older than {@code ttlMillis}
+     * or the upload journal was written after it (a run that ended without saving the index).
+     */
+    public static RemoteIndex loadCache(Path file, String key, long ttlMillis, Path journal) throws IOException {
+        if (ttlMillis <= 0 || !Files.exists(file)) {
+            return null;
+        }
+        long saved = Files.getLastModifiedTime(file).toMillis();
+        if (System.currentTimeMillis() - saved > ttlMillis) {
+            return null;
+        }
+        if (Files.exists(journal) && Files.getLastModifiedTime(journal).toMillis() > saved) {
+            return null;
+        }
+
+        Map<String, Long> sizes = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (!key.equals(reader.readLine())) {
+                return null;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.lastIndexOf('\t');
+                if (separator < 0) {
+                    return null;
+                }
+                sizes.put(line.substring(0, separator), Long.parseLong(line.substring(separator + 1)));
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return new RemoteIndex(sizes);
+    }
+
+    public void save(Path file, String key) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(key);
+            writer.newLine();
+            for (Map.Entry<String, Long> entry : sizes.entrySet()) {
+                writer.write(entry.getKey() + "\t" + entry.getValue());
+                writer.newLine();
+            }
+        }
+    }
+
+    public Long getSize(String name) {
+        return sizes.get(name);
+    }
+
+    public void put(String name, long size) {
+        sizes.put(name, size);
+    }
+
+    public int size() {
+        return sizes.size();
+    }
+}
@@ -0,0 +1,156 @@
+package importer;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Downscales images to a maximum width and height and re-encodes them. Large sources are decoded with
+ * subsampling, so a worker never holds more than about four times the pixels of the output. The target is
+ * written to a temporary file first; a hard-linked target from an earlier run is replaced, not modified.
+ */
+public class ResizeCopyStrategy implements CopyStrategy {
+
+    public static final int DEFAULT_QUALITY = 85;
+
+    private final int maxSize;
+    private final float quality;
+    private final AtomicLong sourceBytes = new AtomicLong();
+    private final AtomicLong targetBytes = new AtomicLong();
+
+    static {
+        ImageIO.setUseCache(false);
+    }
+
+    /**
+     * @param maxSize largest width or height of the output in pixels
+     * @param quality JPEG quality in percent
+     */
+    public ResizeCopyStrategy(int maxSize, int quality) {
+        this.maxSize = maxSize;
+        this.quality = Math.max(1, Math.min(100, quality)) / 100f;
+    }
+
+    @Override
+    public void copy(Path source, Path target) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            if (!resize(source, temp)) {
+                Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            sourceBytes.addAndGet(Files.size(source));
+            targetBytes.addAndGet(Files.size(temp));
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public String getVariant() {
+        return "resize:" + maxSize + ":" + Math.round(quality * 100);
+    }
+
+    public long getSourceBytes() {
+        return sourceBytes.get();
+    }
+
+    public long getTargetBytes() {
+        return targetBytes.get();
+    }
+
+    /**
+     * Returns false when the source should be copied as it is: unknown format, or re-encoding a small image
+     * would not make it smaller.
+     */
+    private boolean resize(Path source, Path target) throws IOException {
+        BufferedImage image;
+        String format;
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return false;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                format = reader.getFormatName().toLowerCase(Locale.ROOT);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / (2 * maxSize));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                image = reader.read(0, param);
+            } catch (IIOException e) {
+                // CMYK and damaged JPEGs are not supported by ImageIO, they are exported unchanged.
+                return false;
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        boolean jpeg = format.equals("jpeg") || format.equals("jpg");
+        boolean scaled = Math.max(image.getWidth(), image.getHeight()) > maxSize;
+        if (scaled) {
+            image = scale(image, jpeg);
+        } else if (!jpeg) {
+            // Only JPEG gains anything from being written again at the same size.
+            return false;
+        }
+
+        write(image, jpeg ? "jpeg" : format, target);
+        return scaled || Files.size(target) < Files.size(source);
+    }
+
+    private BufferedImage scale(BufferedImage image, boolean opaque) {
+        double factor = (double) maxSize / Math.max(image.getWidth(), image.getHeight());
+        int width = Math.max(1, (int) Math.round(image.getWidth() * factor));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * factor));
+        BufferedImage scaled = new BufferedImage(width, height, opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private void write(BufferedImage image, String format, Path target) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new IOException("No image writer for " + format);
+        }
+        ImageWriter writer = writers.next();
+        Files.deleteIfExists(target);
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (format.equals("jpeg")) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package importer;
+
+import entity.AdditionalImage;
+import entity.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ScanResult {
+
+    private final List<Product> products = new ArrayList<>();
+    private final List<AdditionalImage> additionalImages = new ArrayList<>();
+
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    public List<AdditionalImage> getAdditionalImages() {
+        return additionalImages;
+    }
+
+    public void addAll(ScanResult other) {
+        products.addAll(other.products);
+        additionalImages.addAll(other.additionalImages);
+    }
+}
@@ -0,0 +1,29 @@
+package importer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class SequentialCatalogScanner implements CatalogScanner {
+
+    @Override
+    public ScanResult scan(Path catalogLocation, ProductParser parser) throws IOException {
+        ScanResult result = new ScanResult();
+        listFilesUsingFileWalk(catalogLocation).forEach(file -> parser.parse(file, result));
+        return result;
+    }
+
+    private List<Path> listFilesUsingFileWalk(Path dir) throws IOException {
+        try (Stream<Path> stream = Files.walk(dir, MAX_DEPTH)) {
+            return stream
+                    .filter(file -> !Files.isDirectory(file))
+                    .collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
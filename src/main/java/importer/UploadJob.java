@@ -0,0 +1,187 @@
+package importer;
+
+import metrics.MetricRegistry;
+import metrics.RunReport;
+import metrics.Timer;
+import org.apache.commons.net.ftp.FTPClient;
+import printer.Field;
+import printer.Printer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Uploads new and changed images of a folder. Runs on the calling thread; {@link Uploader} runs it from the
+ * GUI and the batch runner calls it directly.
+ */
+public class UploadJob {
+
+    private final Printer printer;
+    private final Path imageDirectory;
+    private final String URL;
+    private final String login;
+    private final String password;
+    private int connections = UploadScheduler.DEFAULT_CONNECTIONS;
+    private int retries = UploadScheduler.DEFAULT_RETRIES;
+    private long indexTtl = Uploader.DEFAULT_INDEX_TTL;
+    private boolean runReport = true;
+    private final MetricRegistry metrics = MetricRegistry.getDefault();
+    private int uploaded;
+    private int failed;
+
+    public UploadJob(Printer printer, Path imageDirectory, String URL, String login, String password) {
+        this.printer = printer;
+        this.imageDirectory = imageDirectory;
+        this.URL = URL;
+        this.login = login;
+        this.password = password;
+    }
+
+    public void setConnections(int connections) {
+        this.connections = connections;
+    }
+
+    public void setRetries(int retries) {
+        this.retries = retries;
+    }
+
+    public void setIndexTtl(long minutes) {
+        this.indexTtl = minutes;
+    }
+
+    /**
+     * Whether the job writes a {@link RunReport} into the reports folder next to the image folder.
+     */
+    public void setRunReport(boolean runReport) {
+        this.runReport = runReport;
+    }
+
+    public int getUploaded() {
+        return uploaded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void run(BooleanSupplier cancelled) throws IOException, InterruptedException {
+        RunReport report = runReport ? RunReport.start("upload", metrics, "upload.") : null;
+        String result = "FAILED";
+        try (Timer.Context ignored = metrics.timer("job.upload").time()) {
+            upload(cancelled);
+            result = cancelled.getAsBoolean() ? "CANCELLED" : failed == 0 ? "OK" : "INCOMPLETE";
+        } catch (InterruptedException | CancellationException e) {
+            result = "CANCELLED";
+            throw e;
+        } finally {
+            if (report != null) {
+                try {
+                    report.finish(imageDirectory.getParent().resolve(RunReport.DIRECTORY), result);
+                } catch (IOException e) {
+                    printer.warn("Can't save run report: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void upload(BooleanSupplier cancelled) throws IOException, InterruptedException {
+        FtpConnectionFactory connectionFactory = new FtpConnectionFactory(URL, login, password);
+
+        Path journalFile = imageDirectory.getParent().resolve(UploadJournal.FILE_NAME);
+        Path indexFile = imageDirectory.getParent().resolve(RemoteIndex.FILE_NAME);
+        String indexKey = login + "@" + URL;
+
+        long start = System.currentTimeMillis();
+        RemoteIndex remoteIndex = RemoteIndex.loadCache(indexFile, indexKey, TimeUnit.MINUTES.toMillis(indexTtl), journalFile);
+        if (remoteIndex != null) {
+            metrics.counter("upload.index_cached").increment();
+            printer.info("Remote index loaded from cache: {} files", remoteIndex.size());
+        } else {
+            FTPClient client = connectionFactory.connect();
+            try (Timer.Context ignored = metrics.timer("upload.list").time()) {
+                remoteIndex = RemoteIndex.list(client);
+            } finally {
+                FtpConnectionFactory.disconnect(client);
+            }
+            printer.info("Remote folder listed: {} files", remoteIndex.size(), Field.duration(System.currentTimeMillis() - start));
+        }
+
+        UploadJournal journal = new UploadJournal(journalFile);
+        journal.load();
+
+        UploadScheduler scheduler = new UploadScheduler(connectionFactory, connections, retries, printer);
+        List<Path> imagesToUpload = new ArrayList<>();
+        try {
+            try (Timer.Context ignored = metrics.timer("upload.diff").time()) {
+                for (Path image : loadImages()) {
+                    if (!isUploaded(image, remoteIndex.getSize(image.getFileName().toString()), journal)) {
+                        imagesToUpload.add(image);
+                    }
+                }
+            }
+
+            printer.info("({}) new images found.", imagesToUpload.size());
+
+            scheduler.setJournal(journal);
+            scheduler.upload(imagesToUpload, cancelled);
+        } finally {
+            updateIndex(remoteIndex, imagesToUpload, journal);
+            journal.close();
+            remoteIndex.save(indexFile, indexKey);
+            uploaded = scheduler.getUploaded();
+            failed = scheduler.getFailed();
+            metrics.counter("upload.files").add(uploaded);
+            metrics.counter("upload.failed").add(failed);
+        }
+
+        printer.info("Uploaded {} files, {} failed.", uploaded, failed);
+    }
+
+    private List<Path> loadImages() throws IOException {
+        try (Stream<Path> stream = Files.walk(imageDirectory, 1)) {
+            return stream
+                    .filter(file -> !Files.isDirectory(file))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private void updateIndex(RemoteIndex remoteIndex, List<Path> uploadedImages, UploadJournal journal) {
+        for (Path image : uploadedImages) {
+            UploadJournal.Entry entry = journal.get(image.getFileName().toString());
+            if (entry != null && entry.isDone()) {
+                remoteIndex.put(image.getFileName().toString(), entry.getSize());
+            }
+        }
+    }
+
+    private boolean isUploaded(Path image, Long remoteSize, UploadJournal journal) throws IOException {
+        if (remoteSize == null) {
+            return false;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(image, BasicFileAttributes.class);
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+
+        UploadJournal.Entry entry = journal.get(image.getFileName().toString());
+        if (entry != null && !entry.matches(size, modified)) {
+            return false;
+        }
+        if (remoteSize < 0) {
+            // The listing has no sizes, so only a finished upload in the journal or a missing entry can be trusted.
+            return entry == null || entry.isDone();
+        }
+        if (remoteSize == size && entry != null && !entry.isDone()) {
+            journal.completed(image.getFileName().toString(), size, modified);
+        }
+        return remoteSize == size;
+    }
+}
@@ -0,0 +1,121 @@
+package importer;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Local record of uploaded files. Every state change is appended and flushed right away, so the journal
+ * survives a crash; the last line for a file wins. {@link #close()} rewrites it with one line per file.
+ */
+public class UploadJournal implements Closeable {
+
+    public static final String FILE_NAME = "upload.journal";
+    private static final String DONE = "DONE";
+    private static final String PARTIAL = "PARTIAL";
+
+    private final Path file;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private BufferedWriter writer;
+
+    public UploadJournal(Path file) {
+        this.file = file;
+    }
+
+    public synchronized void load() throws IOException {
+        entries.clear();
+        if (Files.exists(file)) {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] values = line.split("\t");
+                if (values.length != 5) {
+                    continue;
+                }
+                try {
+                    entries.put(values[0], new Entry(Long.parseLong(values[1]), Long.parseLong(values[2]),
+                            Long.parseLong(values[3]), DONE.equals(values[4])));
+                } catch (NumberFormatException e) {
+                    // A line cut off by a crash, the file is checked against the server instead.
+                }
+            }
+        }
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    public synchronized Entry get(String name) {
+        return entries.get(name);
+    }
+
+    public synchronized void partial(String name, long size, long modified, long offset) throws IOException {
+        append(name, new Entry(size, modified, offset, false));
+    }
+
+    public synchronized void completed(String name, long size, long modified) throws IOException {
+        append(name, new Entry(size, modified, size, true));
+    }
+
+    private void append(String name, Entry entry) throws IOException {
+        entries.put(name, entry);
+        if (writer == null) {
+            return;
+        }
+        writer.write(format(name, entry));
+        writer.newLine();
+        writer.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+        try (BufferedWriter compacted = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Entry> entry : new TreeMap<>(entries).entrySet()) {
+                compacted.write(format(entry.getKey(), entry.getValue()));
+                compacted.newLine();
+            }
+        }
+    }
+
+    private static String format(String name, Entry entry) {
+        return name + "\t" + entry.size + "\t" + entry.modified + "\t" + entry.offset + "\t" + (entry.done ? DONE : PARTIAL);
+    }
+
+    public static class Entry {
+
+        private final long size;
+        private final long modified;
+        private final long offset;
+        private final boolean done;
+
+        public Entry(long size, long modified, long offset, boolean done) {
+            this.size = size;
+            this.modified = modified;
+            this.offset = offset;
+            this.done = done;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public boolean isDone() {
+            return done;
+        }
+
+        public boolean matches(long size, long modified) {
+            return this.size == size && this.modified == modified;
+        }
+    }
+}
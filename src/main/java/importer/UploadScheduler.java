@@ -0,0 +1,273 @@
+package importer;
+
+import metrics.Counter;
+import metrics.Histogram;
+import metrics.MetricRegistry;
+import metrics.Timer;
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPReply;
+import printer.Field;
+import printer.Printer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Uploads files over a pool of logged-in FTP sessions. Every session takes the next file from a shared queue,
+ * so a slow file does not hold up the others. A failed transfer is retried on a fresh connection.
+ */
+public class UploadScheduler {
+
+    public static final int DEFAULT_CONNECTIONS = 4;
+    public static final int DEFAULT_RETRIES = 3;
+    private static final int PROGRESS_STEP = 100;
+
+    private final FtpConnectionFactory connectionFactory;
+    private final int connections;
+    private final int retries;
+    private final Printer printer;
+    private final Timer storeTimer = MetricRegistry.getDefault().timer("upload.store");
+    private final Counter uploadedBytes = MetricRegistry.getDefault().counter("upload.bytes");
+    private final Histogram fileSizes = MetricRegistry.getDefault().histogram("upload.file_bytes");
+    private final Counter retried = MetricRegistry.getDefault().counter("upload.retries");
+
+    private UploadJournal journal;
+
+    private final Set<FTPClient> activeClients = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger uploaded = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private volatile boolean cancelled;
+
+    public UploadScheduler(FtpConnectionFactory connectionFactory, int connections, int retries, Printer printer) {
+        this.connectionFactory = connectionFactory;
+        this.connections = Math.max(1, connections);
+        this.retries = Math.max(0, retries);
+        this.printer = printer;
+    }
+
+    public void setJournal(UploadJournal journal) {
+        this.journal = journal;
+    }
+
+    public int getUploaded() {
+        return uploaded.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+
+    public void upload(List<Path> files, BooleanSupplier isCancelled) throws InterruptedException {
+        if (files.isEmpty()) {
+            return;
+        }
+        Queue<Path> queue = new ConcurrentLinkedQueue<>(files);
+        int sessions = Math.min(connections, files.size());
+        ExecutorService executor = Executors.newFixedThreadPool(sessions);
+        List<Future<?>> workers = new ArrayList<>();
+        try {
+            for (int i = 0; i < sessions; i++) {
+                workers.add(executor.submit(() -> work(queue, files.size(), isCancelled)));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            cancel();
+            throw e;
+        } catch (ExecutionException e) {
+            cancel();
+            throw new IllegalStateException("Upload worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void cancel() {
+        cancelled = true;
+        // Closing the sockets is the only way to stop a transfer that is blocked in I/O.
+        activeClients.forEach(FtpConnectionFactory::disconnect);
+    }
+
+    private void work(Queue<Path> queue, int total, BooleanSupplier isCancelled) {
+        FTPClient client = null;
+        try {
+            Path file;
+            while (!cancelled && !isCancelled.getAsBoolean() && (file = queue.poll()) != null) {
+                client = uploadWithRetries(client, file);
+                int done = uploaded.get() + failed.get();
+                if (done % PROGRESS_STEP == 0 || done == total) {
+                    printer.info("Uploaded files: {} / {}", done, total);
+                }
+            }
+        } finally {
+            close(client);
+        }
+    }
+
+    private FTPClient uploadWithRetries(FTPClient client, Path file) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            fail(file, e.toString());
+            return client;
+        }
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+
+        for (int attempt = 0; ; attempt++) {
+            try {
+                if (client == null || !client.isConnected()) {
+                    client = open();
+                }
+                if (store(client, file, size, modified)) {
+                    uploaded.incrementAndGet();
+                    return client;
+                }
+                if (!FTPReply.isNegativeTransient(client.getReplyCode()) || attempt >= retries) {
+                    fail(file, client.getReplyString().trim());
+                    return client;
+                }
+                // A 4xx reply can leave the session in a broken state, the retry gets a new one.
+                close(client);
+                client = null;
+            } catch (IOException e) {
+                close(client);
+                client = null;
+                if (cancelled || attempt >= retries) {
+                    fail(file, e.toString());
+                    return null;
+                }
+            }
+            retried.increment();
+        }
+    }
+
+    private boolean store(FTPClient client, Path file, long size, long modified) throws IOException {
+        String name = file.getFileName().toString();
+        long offset = resumeOffset(client, name, size, modified);
+        if (offset > 0) {
+            printer.info("Resuming {} at {} of {} bytes", Field.path(name), offset, size);
+        }
+        if (journal != null) {
+            journal.partial(name, size, modified, offset);
+        }
+
+        try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+            channel.position(offset);
+            CountingInputStream stream = new CountingInputStream(Channels.newInputStream(channel));
+            client.setRestartOffset(offset);
+            boolean stored;
+            long start = System.nanoTime();
+            try {
+                stored = client.storeFile(name, stream);
+            } finally {
+                client.setRestartOffset(0);
+                storeTimer.recordSince(start);
+                uploadedBytes.add(stream.getCount());
+                fileSizes.record(stream.getCount());
+            }
+            if (journal != null) {
+                if (stored) {
+                    journal.completed(name, size, modified);
+                } else {
+                    journal.partial(name, size, modified, offset + stream.getCount());
+                }
+            }
+            return stored;
+        } catch (IOException e) {
+            if (journal != null && !cancelled) {
+                journal.partial(name, size, modified, offset);
+            }
+            throw e;
+        }
+    }
+
+    private long resumeOffset(FTPClient client, String name, long size, long modified) throws IOException {
+        UploadJournal.Entry entry = journal == null ? null : journal.get(name);
+        if (entry == null || entry.isDone() || !entry.matches(size, modified)) {
+            return 0;
+        }
+        // The journal only says that a transfer was interrupted, the server knows how many bytes arrived.
+        String remoteSize = client.getSize(name);
+        if (remoteSize == null) {
+            return 0;
+        }
+        try {
+            long offset = Long.parseLong(remoteSize.trim());
+            return offset > 0 && offset < size ? offset : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private FTPClient open() throws IOException {
+        FTPClient client = connectionFactory.connect();
+        activeClients.add(client);
+        return client;
+    }
+
+    private void close(FTPClient client) {
+        if (client != null) {
+            activeClients.remove(client);
+            FtpConnectionFactory.disconnect(client);
+        }
+    }
+
+    private void fail(Path file, String reason) {
+        failed.incrementAndGet();
+        if (!cancelled) {
+            printer.error("Can't upload file {}: {}", Field.path(file.getFileName()), reason);
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value != -1) {
+                count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+}
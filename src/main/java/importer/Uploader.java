@@ -1,32 +1,28 @@
 package importer;
 
 import listener.DoneListener;
-import org.apache.commons.net.PrintCommandListener;
-import org.apache.commons.net.ftp.FTP;
-import org.apache.commons.net.ftp.FTPClient;
-import org.apache.commons.net.ftp.FTPFile;
-import org.apache.commons.net.ftp.FTPReply;
 import printer.Printer;
 
 import javax.swing.*;
-import java.io.*;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public class Uploader extends SwingWorker<Boolean, String> {
 
+    public static final int DEFAULT_INDEX_TTL = 60;
+
     private Path imageDirectory;
     private String URL;
     private String login;
     private String password;
     private Printer printer;
     private DoneListener doneListener;
+    private int connections = UploadScheduler.DEFAULT_CONNECTIONS;
+    private int retries = UploadScheduler.DEFAULT_RETRIES;
+    private long indexTtl = DEFAULT_INDEX_TTL;
+    private boolean runReport = true;
 
     public Uploader(Printer printer, String imageDirectory, String URL, String login, String password) {
         super();
@@ -37,67 +33,40 @@ public class Uploader extends SwingWorker<Boolean, String> {
         this.printer = printer;
     }
 
-    public void addDoneListener(DoneListener doneListener) {
-        this.doneListener = doneListener;
+    public void setConnections(int connections) {
+        this.connections = connections;
     }
 
-    private List<Path> loadImages() throws IOException {
-        try (Stream<Path> stream = Files.walk(imageDirectory, 1)) {
-            return stream
-                    .filter(file -> !Files.isDirectory(file))
-                    .collect(Collectors.toList());
-        }
+    public void setRetries(int retries) {
+        this.retries = retries;
     }
 
-    @Override
-    protected Boolean doInBackground() throws Exception {
-        FTPClient client = new FTPClient();
-        client.addProtocolCommandListener(new PrintCommandListener(new PrintWriter(System.out)));
-        client.setControlEncoding("UTF-8");
-
-        client.connect(URL);
-        int replyCode = client.getReplyCode();
-        if (!FTPReply.isPositiveCompletion(replyCode)) {
-            client.disconnect();
-        }
-
-        client.login(login, password);
-        client.setFileType(FTP.BINARY_FILE_TYPE);
-        client.enterLocalPassiveMode();
-
-        List<String> existingFiles = Stream.of(client.listFiles()).map(FTPFile::getName).collect(Collectors.toList());
-        List<Path> localImages = loadImages();
-        List<Path> imagesToUpload = new ArrayList<>();
-
-        localImages.forEach(image -> {
-            if (!existingFiles.contains(image.getFileName().toString())) {
-                imagesToUpload.add(image);
-            }
-        });
-
-        publish("[INFO] (" + imagesToUpload.size() + ") new images found.");
+    public void setIndexTtl(long minutes) {
+        this.indexTtl = minutes;
+    }
 
-        for (int i = 0; i < imagesToUpload.size(); i++) {
-            if (isCancelled()) {
-                disconnect(client);
-                break;
-            }
-            Path image = imagesToUpload.get(i);
-            publish("[INFO] Uploading file " + i + " / " + imagesToUpload.size());
-            try (InputStream fileStream = new FileInputStream(image.toFile())) {
-                client.storeFile(image.getFileName().toString(), fileStream);
-            }
-        }
+    public void setRunReport(boolean runReport) {
+        this.runReport = runReport;
+    }
 
-        disconnect(client);
+    public void addDoneListener(DoneListener doneListener) {
+        this.doneListener = doneListener;
+    }
 
+    @Override
+    protected Boolean doInBackground() throws Exception {
+        UploadJob job = new UploadJob(text -> publish(text), imageDirectory, URL, login, password);
+        job.setConnections(connections);
+        job.setRetries(retries);
+        job.setIndexTtl(indexTtl);
+        job.setRunReport(runReport);
+        job.run(this::isCancelled);
         return true;
     }
 
     @Override
     protected void process(List<String> chunks) {
-        String message = chunks.get(chunks.size() - 1);
-        printer.print(message);
+        chunks.forEach(printer::print);
     }
 
     @Override
@@ -120,10 +89,4 @@ public class Uploader extends SwingWorker<Boolean, String> {
         }
     }
 
-    private void disconnect(FTPClient client) throws IOException {
-        if (client.isConnected()) {
-            client.logout();
-            client.disconnect();
-        }
-    }
 }
@@ -0,0 +1,62 @@
+package importer;
+
+import entity.Product;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Result of {@link CatalogValidator}: the offending products of every kind of problem, in catalog order.
+ */
+public class ValidationReport {
+
+    public enum Problem {
+        WRONG_WEIGHT,
+        DUPLICATE_SKU,
+        MISSING_IMAGE
+    }
+
+    private final int checked;
+    private final Map<Problem, List<Product>> problems = new EnumMap<>(Problem.class);
+
+    public ValidationReport(int checked) {
+        this.checked = checked;
+    }
+
+    void put(Problem problem, List<Product> products) {
+        problems.put(problem, Collections.unmodifiableList(products));
+    }
+
+    public int getChecked() {
+        return checked;
+    }
+
+    public int getCount(Problem problem) {
+        return get(problem).size();
+    }
+
+    public List<Product> get(Problem problem) {
+        return problems.getOrDefault(problem, Collections.emptyList());
+    }
+
+    public List<String> getSkus(Problem problem) {
+        return get(problem).stream().map(Product::getSKU).collect(Collectors.toList());
+    }
+
+    public boolean hasProblems() {
+        return problems.values().stream().anyMatch(products -> !products.isEmpty());
+    }
+
+    @Override
+    public String toString() {
+        return "ValidationReport{" +
+                "checked=" + checked +
+                ", wrongWeights=" + getCount(Problem.WRONG_WEIGHT) +
+                ", duplicateSkus=" + getCount(Problem.DUPLICATE_SKU) +
+                ", missingImages=" + getCount(Problem.MISSING_IMAGE) +
+                '}';
+    }
+}
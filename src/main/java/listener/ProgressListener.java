@@ -0,0 +1,16 @@
+package listener;
+
+public interface ProgressListener {
+
+    ProgressListener NONE = (done, total) -> {
+    };
+
+    /**
+     * Called from worker threads. A negative total means that the amount of work is not known yet.
+     */
+    void progress(long done, long total);
+
+    default boolean isCancelled() {
+        return false;
+    }
+}
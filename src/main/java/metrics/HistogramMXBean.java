@@ -0,0 +1,16 @@
+package metrics;
+
+public interface HistogramMXBean {
+
+    long getCount();
+
+    double getMean();
+
+    long getMax();
+
+    long get50thPercentile();
+
+    long get90thPercentile();
+
+    long get99thPercentile();
+}
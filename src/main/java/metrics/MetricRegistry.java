@@ -0,0 +1,172 @@
+package metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Named counters, timers and histograms of the application. The default registry publishes every metric as an
+ * MXBean named "importer:type=Timer,name=scan.parse" and so on, so a running export can be watched in JConsole
+ * or VisualVM. Values only grow; {@link #snapshot()} and {@link Snapshot#since} give the share of one job.
+ */
+public class MetricRegistry {
+
+    public static final String JMX_DOMAIN = "importer";
+
+    private static final MetricRegistry DEFAULT = new MetricRegistry(JMX_DOMAIN);
+
+    private final String domain;
+    private final Map<String, Object> metrics = new ConcurrentHashMap<>();
+
+    public MetricRegistry() {
+        this(null);
+    }
+
+    /**
+     * @param domain JMX domain of the metrics, or null to keep them out of JMX
+     */
+    public MetricRegistry(String domain) {
+        this.domain = domain;
+    }
+
+    public static MetricRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    public Counter counter(String name) {
+        return get(name, Counter.class, Counter::new, CounterMXBean.class);
+    }
+
+    public Timer timer(String name) {
+        return get(name, Timer.class, Timer::new, TimerMXBean.class);
+    }
+
+    public Histogram histogram(String name) {
+        return get(name, Histogram.class, Histogram::new, HistogramMXBean.class);
+    }
+
+    public Snapshot snapshot() {
+        Map<String, Long> counters = new TreeMap<>();
+        Map<String, Histogram.Snapshot> timers = new TreeMap<>();
+        Map<String, Histogram.Snapshot> histograms = new TreeMap<>();
+        metrics.forEach((name, metric) -> {
+            if (metric instanceof Counter) {
+                counters.put(name, ((Counter) metric).getCount());
+            } else if (metric instanceof Timer) {
+                timers.put(name, ((Timer) metric).snapshot());
+            } else {
+                histograms.put(name, ((Histogram) metric).snapshot());
+            }
+        });
+        return new Snapshot(counters, timers, histograms);
+    }
+
+    private <T> T get(String name, Class<T> type, Supplier<T> factory, Class<? super T> view) {
+        Object metric = metrics.get(name);
+        if (metric == null) {
+            metric = metrics.computeIfAbsent(name, key -> {
+                T created = factory.get();
+                register(key, type.getSimpleName(), created, view);
+                return created;
+            });
+        }
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException("Metric " + name + " is a " + metric.getClass().getSimpleName());
+        }
+        return type.cast(metric);
+    }
+
+    private <T> void register(String name, String type, T metric, Class<? super T> view) {
+        if (domain == null) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName objectName = new ObjectName(domain + ":type=" + type + ",name=" + ObjectName.quote(name));
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(new StandardMBean(metric, view, true), objectName);
+            }
+        } catch (JMException e) {
+            // JMX is only a view, the metric still counts.
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Values of all metrics at one moment, sorted by name.
+     */
+    public static class Snapshot {
+
+        private final Map<String, Long> counters;
+        private final Map<String, Histogram.Snapshot> timers;
+        private final Map<String, Histogram.Snapshot> histograms;
+
+        Snapshot(Map<String, Long> counters, Map<String, Histogram.Snapshot> timers, Map<String, Histogram.Snapshot> histograms) {
+            this.counters = Collections.unmodifiableMap(counters);
+            this.timers = Collections.unmodifiableMap(timers);
+            this.histograms = Collections.unmodifiableMap(histograms);
+        }
+
+        /**
+         * What was recorded after the earlier snapshot. Metrics that did not change are left out.
+         */
+        public Snapshot since(Snapshot earlier) {
+            Map<String, Long> counters = new TreeMap<>();
+            this.counters.forEach((name, value) -> {
+                long delta = value - earlier.counters.getOrDefault(name, 0L);
+                if (delta != 0) {
+                    counters.put(name, delta);
+                }
+            });
+            return new Snapshot(counters, since(timers, earlier.timers), since(histograms, earlier.histograms));
+        }
+
+        /**
+         * Only the metrics whose names pass the filter.
+         */
+        public Snapshot filter(Predicate<String> names) {
+            return new Snapshot(filter(counters, names), filter(timers, names), filter(histograms, names));
+        }
+
+        public Map<String, Long> getCounters() {
+            return counters;
+        }
+
+        public Map<String, Histogram.Snapshot> getTimers() {
+            return timers;
+        }
+
+        public Map<String, Histogram.Snapshot> getHistograms() {
+            return histograms;
+        }
+
+        private static <V> Map<String, V> filter(Map<String, V> metrics, Predicate<String> names) {
+            Map<String, V> result = new TreeMap<>();
+            metrics.forEach((name, value) -> {
+                if (names.test(name)) {
+                    result.put(name, value);
+                }
+            });
+            return result;
+        }
+
+        private static Map<String, Histogram.Snapshot> since(Map<String, Histogram.Snapshot> current, Map<String, Histogram.Snapshot> earlier) {
+            Map<String, Histogram.Snapshot> result = new TreeMap<>();
+            current.forEach((name, snapshot) -> {
+                Histogram.Snapshot delta = snapshot.since(earlier.get(name));
+                if (delta.getCount() != 0) {
+                    result.put(name, delta);
+                }
+            });
+            return result;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON summary of one job: its result, duration and the metrics it recorded. Reports are written to their own
+ * files named after the job and its start time, so the history of runs can be collected and graphed.
+ * Metrics are shared by all jobs of the process; a report only contains the timer "job.name" and the metrics
+ * starting with the prefixes given to {@link #start}, so that jobs running at the same time do not show up in
+ * each other's reports.
+ */
+public class RunReport {
+
+    public static final String DIRECTORY = "reports";
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS")
+            .withZone(ZoneId.systemDefault());
+
+    private final String job;
+    private final MetricRegistry registry;
+    private final List<String> prefixes;
+    private final MetricRegistry.Snapshot start;
+    private final Instant started = Instant.now();
+    private final long startNanos = System.nanoTime();
+
+    private RunReport(String job, MetricRegistry registry, List<String> prefixes) {
+        this.job = job;
+        this.registry = registry;
+        this.prefixes = prefixes;
+        this.start = registry.snapshot();
+    }
+
+    /**
+     * @param prefixes name prefixes of the metrics recorded by the job, for example "scan."
+     */
+    public static RunReport start(String job, MetricRegistry registry, String... prefixes) {
+        return new RunReport(job, registry, Arrays.asList(prefixes));
+    }
+
+    /**
+     * Writes the report into the given folder and returns its file.
+     */
+    public Path finish(Path directory, String result) throws IOException {
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        String json = toJson(result, millis, registry.snapshot().since(start).filter(this::isOwnMetric));
+        Files.createDirectories(directory);
+        Path file = directory.resolve(job + "-" + FILE_TIME.format(started) + ".json");
+        Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private boolean isOwnMetric(String name) {
+        return name.equals("job." + job) || prefixes.stream().anyMatch(name::startsWith);
+    }
+
+    private String toJson(String result, long millis, MetricRegistry.Snapshot metrics) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"job\": ").append(quote(job)).append(",\n");
+        json.append("  \"result\": ").append(quote(result)).append(",\n");
+        json.append("  \"started\": ").append(quote(started.toString())).append(",\n");
+        json.append("  \"durationMillis\": ").append(millis).append(",\n");
+
+        json.append("  \"counters\": {");
+        String separator = "\n";
+        for (Map.Entry<String, Long> counter : metrics.getCounters().entrySet()) {
+            json.append(separator).append("    ").append(quote(counter.getKey())).append(": ").append(counter.getValue());
+            separator = ",\n";
+        }
+        json.append(metrics.getCounters().isEmpty() ? "},\n" : "\n  },\n");
+
+        json.append("  \"timers\": {");
+        appendHistograms(json, metrics.getTimers(), true);
+        json.append(",\n");
+        json.append("  \"histograms\": {");
+        appendHistograms(json, metrics.getHistograms(), false);
+        json.append("\n}\n");
+        return json.toString();
+    }
+
+    private static void appendHistograms(StringBuilder json, Map<String, Histogram.Snapshot> histograms, boolean nanos) {
+        String separator = "\n";
+        for (Map.Entry<String, Histogram.Snapshot> entry : histograms.entrySet()) {
+            Histogram.Snapshot snapshot = entry.getValue();
+            String unit = nanos ? "Millis" : "";
+            json.append(separator).append("    ").append(quote(entry.getKey())).append(": {")
+                    .append("\"count\": ").append(snapshot.getCount());
+            if (nanos) {
+                json.append(", \"totalMillis\": ").append(number(Timer.toMillis(snapshot.getSum())));
+            }
+            json.append(", \"mean").append(unit).append("\": ").append(number(nanos ? snapshot.getMean() / 1e6 : snapshot.getMean()))
+                    .append(", \"p50").append(unit).append("\": ").append(value(snapshot.getPercentile(0.5), nanos))
+                    .append(", \"p90").append(unit).append("\": ").append(value(snapshot.getPercentile(0.9), nanos))
+                    .append(", \"p99").append(unit).append("\": ").append(value(snapshot.getPercentile(0.99), nanos))
+                    .append(", \"max").append(unit).append("\": ").append(value(snapshot.getMax(), nanos))
+                    .append("}");
+            separator = ",\n";
+        }
+        json.append(histograms.isEmpty() ? "}" : "\n  }");
+    }
+
+    private static String value(long value, boolean nanos) {
+        return nanos ? number(Timer.toMillis(value)) : Long.toString(value);
+    }
+
+    private static String number(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static String quote(String text) {
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < ' ') {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
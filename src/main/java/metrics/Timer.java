@@ -0,0 +1,82 @@
+package metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Histogram of durations in nanoseconds. Hot loops call {@link #recordSince(long)} with a start taken from
+ * {@link System#nanoTime()}; whole stages can use {@link #time()} in a try-with-resources block.
+ */
+public class Timer implements TimerMXBean {
+
+    private final Histogram histogram = new Histogram();
+
+    public void record(long nanos) {
+        histogram.record(nanos);
+    }
+
+    public void recordSince(long startNanos) {
+        histogram.record(System.nanoTime() - startNanos);
+    }
+
+    public Context time() {
+        return new Context(this);
+    }
+
+    public Histogram.Snapshot snapshot() {
+        return histogram.snapshot();
+    }
+
+    @Override
+    public long getCount() {
+        return histogram.getCount();
+    }
+
+    @Override
+    public double getTotalMillis() {
+        return toMillis(histogram.snapshot().getSum());
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return histogram.getMean() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return toMillis(histogram.getMax());
+    }
+
+    @Override
+    public double get50thPercentileMillis() {
+        return toMillis(histogram.get50thPercentile());
+    }
+
+    @Override
+    public double get90thPercentileMillis() {
+        return toMillis(histogram.get90thPercentile());
+    }
+
+    @Override
+    public double get99thPercentileMillis() {
+        return toMillis(histogram.get99thPercentile());
+    }
+
+    static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public static class Context implements AutoCloseable {
+
+        private final Timer timer;
+        private final long start = System.nanoTime();
+
+        private Context(Timer timer) {
+            this.timer = timer;
+        }
+
+        @Override
+        public void close() {
+            timer.recordSince(start);
+        }
+    }
+}
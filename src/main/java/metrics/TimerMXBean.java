@@ -0,0 +1,18 @@
+package metrics;
+
+public interface TimerMXBean {
+
+    long getCount();
+
+    double getTotalMillis();
+
+    double getMeanMillis();
+
+    double getMaxMillis();
+
+    double get50thPercentileMillis();
+
+    double get90thPercentileMillis();
+
+    double get99thPercentileMillis();
+}
@@ -0,0 +1,45 @@
+package printer;
+
+public final class Field {
+
+    public static final String SKU = "sku";
+    public static final String PATH = "path";
+    public static final String DURATION = "duration";
+
+    private final String key;
+    private final Object value;
+
+    private Field(String key, Object value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    public static Field of(String key, Object value) {
+        return new Field(key, value);
+    }
+
+    public static Field sku(String sku) {
+        return new Field(SKU, sku);
+    }
+
+    public static Field path(Object path) {
+        return new Field(PATH, path);
+    }
+
+    public static Field duration(long millis) {
+        return new Field(DURATION, millis + " ms");
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return key + "=" + value;
+    }
+}
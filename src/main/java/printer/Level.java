@@ -0,0 +1,61 @@
+package printer;
+
+public enum Level {
+    DEBUG("[DEBUG]"),
+    INFO("[INFO]"),
+    WARN("[WARN]"),
+    ERROR("[ERROR]");
+
+    private final String prefix;
+
+    Level(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public boolean isAtLeast(Level threshold) {
+        return ordinal() >= threshold.ordinal();
+    }
+
+    /**
+     * Level of a message that carries its level as a hand-written prefix. Messages without one count as INFO.
+     */
+    public static Level of(String text) {
+        if (text.startsWith("[")) {
+            for (Level level : values()) {
+                if (text.startsWith(level.prefix)) {
+                    return level;
+                }
+            }
+        }
+        return INFO;
+    }
+
+    /**
+     * Builds "[LEVEL] message" where every {} is replaced by the next argument. {@link Field} arguments
+     * without a placeholder are appended as key=value pairs.
+     */
+    public String format(String message, Object... args) {
+        StringBuilder builder = new StringBuilder(prefix.length() + message.length() + 16 * args.length);
+        builder.append(prefix).append(' ');
+        int arg = 0;
+        int start = 0;
+        int placeholder;
+        while (arg < args.length && (placeholder = message.indexOf("{}", start)) >= 0) {
+            builder.append(message, start, placeholder);
+            Object value = args[arg++];
+            builder.append(value instanceof Field ? ((Field) value).getValue() : value);
+            start = placeholder + 2;
+        }
+        builder.append(message, start, message.length());
+        for (; arg < args.length; arg++) {
+            if (args[arg] instanceof Field) {
+                builder.append(' ').append(args[arg]);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -1,5 +1,43 @@
 package printer;
 
+import java.util.function.Supplier;
+
 public interface Printer {
     void print(String text);
+
+    default boolean isEnabled(Level level) {
+        return true;
+    }
+
+    default void print(Level level, String message, Object... args) {
+        if (isEnabled(level)) {
+            print(level.format(message, args));
+        }
+    }
+
+    default void print(Level level, Supplier<String> message) {
+        if (isEnabled(level)) {
+            print(level.format(message.get()));
+        }
+    }
+
+    default void debug(String message, Object... args) {
+        print(Level.DEBUG, message, args);
+    }
+
+    default void debug(Supplier<String> message) {
+        print(Level.DEBUG, message);
+    }
+
+    default void info(String message, Object... args) {
+        print(Level.INFO, message, args);
+    }
+
+    default void warn(String message, Object... args) {
+        print(Level.WARN, message, args);
+    }
+
+    default void error(String message, Object... args) {
+        print(Level.ERROR, message, args);
+    }
 }
@@ -2,24 +2,137 @@ package printer;
 
 import javax.swing.*;
 import javax.swing.text.*;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Collects messages from any thread in a lock-free queue and appends them to the text pane in one batch per
+ * frame on the EDT. The document keeps only the last {@link #MAX_DOCUMENT_LENGTH} characters. Messages below
+ * the configured level are never formatted; DEBUG and INFO messages over the configured rate are dropped and
+ * reported as one summary line per level.
+ */
 public class PrinterGUI implements Printer {
 
+    private static final int FLUSH_INTERVAL = 40;
+    private static final int MAX_BATCH = 5000;
+    private static final int MAX_DOCUMENT_LENGTH = 1_000_000;
+    public static final int DEFAULT_MAX_MESSAGES_PER_SECOND = 500;
+
+    private static final Level[] LIMITED_LEVELS = {Level.DEBUG, Level.INFO};
+
     JTextPane textPane;
     JScrollPane scrollPane;
 
+    private final Queue<String> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong window = new AtomicLong();
+    private final AtomicInteger[] counts = new AtomicInteger[LIMITED_LEVELS.length];
+    private final AtomicInteger[] suppressed = new AtomicInteger[LIMITED_LEVELS.length];
+    private volatile int maxMessagesPerSecond = DEFAULT_MAX_MESSAGES_PER_SECOND;
+    private volatile Level level = Level.INFO;
+
     public PrinterGUI(JTextPane textPane, JScrollPane scrollPane){
         this.textPane = textPane;
         this.scrollPane = scrollPane;
+        for (int i = 0; i < LIMITED_LEVELS.length; i++) {
+            counts[i] = new AtomicInteger();
+            suppressed[i] = new AtomicInteger();
+        }
+        Timer timer = new Timer(FLUSH_INTERVAL, e -> flush());
+        timer.setCoalesce(true);
+        timer.start();
+    }
+
+    public void setMaxMessagesPerSecond(int maxMessagesPerSecond) {
+        this.maxMessagesPerSecond = maxMessagesPerSecond;
+    }
+
+    public void setLevel(Level level) {
+        this.level = level;
+    }
+
+    @Override
+    public boolean isEnabled(Level level) {
+        return level.isAtLeast(this.level);
     }
 
     public void print(String text){
+        enqueue(Level.of(text), text);
+    }
+
+    @Override
+    public void print(Level level, String message, Object... args) {
+        if (isEnabled(level)) {
+            enqueue(level, level.format(message, args));
+        }
+    }
+
+    private void enqueue(Level level, String text) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        int limited = limitedIndex(level);
+        if (limited >= 0 && !acquire(limited)) {
+            suppressed[limited].incrementAndGet();
+            return;
+        }
+        queue.offer(text);
+    }
+
+    private boolean acquire(int level) {
+        long second = System.currentTimeMillis() / 1000;
+        long current = window.get();
+        if (current != second && window.compareAndSet(current, second)) {
+            for (AtomicInteger count : counts) {
+                count.set(0);
+            }
+        }
+        return maxMessagesPerSecond <= 0 || counts[level].incrementAndGet() <= maxMessagesPerSecond;
+    }
+
+    private static int limitedIndex(Level level) {
+        for (int i = 0; i < LIMITED_LEVELS.length; i++) {
+            if (LIMITED_LEVELS[i] == level) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void flush() {
+        StringBuilder batch = new StringBuilder();
+        String text;
+        for (int i = 0; i < MAX_BATCH && (text = queue.poll()) != null; i++) {
+            batch.append(text).append(System.lineSeparator());
+        }
+        for (int i = 0; i < LIMITED_LEVELS.length; i++) {
+            int count = suppressed[i].getAndSet(0);
+            if (count > 0) {
+                batch.append(LIMITED_LEVELS[i].getPrefix()).append(" ").append(count).append(" messages suppressed").append(System.lineSeparator());
+            }
+        }
+        if (batch.length() == 0) {
+            return;
+        }
         try {
             Document doc = textPane.getDocument();
-            doc.insertString(doc.getLength(), text + System.lineSeparator(), null);
+            doc.insertString(doc.getLength(), batch.toString(), null);
+            trim(doc);
             scrollPane.getVerticalScrollBar().setValue(scrollPane.getVerticalScrollBar().getMaximum());
         } catch (BadLocationException e) {
             e.printStackTrace();
         }
     }
+
+    private void trim(Document doc) throws BadLocationException {
+        int excess = doc.getLength() - MAX_DOCUMENT_LENGTH;
+        if (excess <= 0) {
+            return;
+        }
+        // Cut at the end of a line, so the first visible message is complete.
+        String tail = doc.getText(excess, Math.min(1000, doc.getLength() - excess));
+        int lineEnd = tail.indexOf('\n');
+        doc.remove(0, lineEnd < 0 ? excess : excess + lineEnd + 1);
+    }
 }
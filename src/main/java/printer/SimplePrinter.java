@@ -1,8 +1,29 @@
 package printer;
 
 public class SimplePrinter implements Printer {
+
+    private volatile Level level = Level.INFO;
+
+    public void setLevel(Level level) {
+        this.level = level;
+    }
+
+    @Override
+    public boolean isEnabled(Level level) {
+        return level.isAtLeast(this.level);
+    }
+
     @Override
     public void print(String text) {
-        System.out.println(text);
+        if (isEnabled(Level.of(text))) {
+            System.out.println(text);
+        }
+    }
+
+    @Override
+    public void print(Level level, String message, Object... args) {
+        if (isEnabled(level)) {
+            System.out.println(level.format(message, args));
+        }
     }
 }
@@ -0,0 +1,146 @@
+package util;
+
+/**
+ * Catalog file name split in a single pass. Product files are named "SKU weight x description.ext" and
+ * additional images "SKU_suffix.ext" or "SKU.ext". Parts are kept as offsets into the name, strings are only
+ * created by the getters. The extension starts after the last dot, so dots inside the weight or the
+ * description are allowed.
+ */
+public final class FileName {
+
+    private static final String[] IMAGE_EXTENSIONS = {"jpg", "png", "jpeg"};
+
+    private final String name;
+    // Index of the extension dot, or the name length when there is none.
+    private final int dot;
+    private final boolean product;
+    private final int skuEnd;
+    private final int weightStart;
+    private final int weightEnd;
+    private final int descriptionStart;
+    private final int descriptionEnd;
+    private final int suffixStart;
+
+    private FileName(String name) {
+        this.name = name;
+        int length = name.length();
+        int lastDot = name.lastIndexOf('.');
+        dot = lastDot < 0 ? length : lastDot;
+
+        int firstSpace = -1;
+        int secondSpace = -1;
+        int thirdSpace = -1;
+        int firstUnderscore = -1;
+        int firstDot = -1;
+        for (int i = 0; i < dot; i++) {
+            char c = name.charAt(i);
+            if (c == ' ') {
+                if (firstSpace < 0) {
+                    firstSpace = i;
+                } else if (secondSpace < 0) {
+                    secondSpace = i;
+                } else if (thirdSpace < 0) {
+                    thirdSpace = i;
+                }
+            } else if (c == '_' && firstUnderscore < 0) {
+                firstUnderscore = i;
+            } else if (c == '.' && firstDot < 0) {
+                firstDot = i;
+            }
+        }
+
+        product = firstSpace >= 0;
+        if (product) {
+            skuEnd = firstSpace;
+            weightStart = firstSpace + 1;
+            weightEnd = secondSpace < 0 ? dot : secondSpace;
+            // The third word is the "x" between weight and description.
+            int start = thirdSpace < 0 ? dot : thirdSpace + 1;
+            int end = dot;
+            while (start < end && name.charAt(start) <= ' ') {
+                start++;
+            }
+            while (end > start && name.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            descriptionStart = start;
+            descriptionEnd = end;
+            suffixStart = dot;
+        } else {
+            if (firstUnderscore >= 0) {
+                skuEnd = firstUnderscore;
+                suffixStart = firstUnderscore + 1;
+            } else {
+                skuEnd = firstDot < 0 ? dot : firstDot;
+                suffixStart = dot;
+            }
+            weightStart = weightEnd = descriptionStart = descriptionEnd = dot;
+        }
+    }
+
+    public static FileName parse(String name) {
+        return new FileName(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean hasExtension() {
+        return dot < name.length();
+    }
+
+    /**
+     * Lower-case extension without the dot, empty if there is none.
+     */
+    public String getExtension() {
+        for (String extension : IMAGE_EXTENSIONS) {
+            if (isExtension(extension)) {
+                return extension;
+            }
+        }
+        return hasExtension() ? name.substring(dot + 1).toLowerCase() : "";
+    }
+
+    public boolean isImage() {
+        for (String extension : IMAGE_EXTENSIONS) {
+            if (isExtension(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether this is a product file ("SKU weight x description") rather than an additional image.
+     */
+    public boolean isProduct() {
+        return product;
+    }
+
+    public String getSku() {
+        return name.substring(0, skuEnd);
+    }
+
+    /**
+     * Weight with a decimal comma replaced by a dot.
+     */
+    public String getWeight() {
+        return name.substring(weightStart, weightEnd).replace(',', '.');
+    }
+
+    public String getDescription() {
+        return name.substring(descriptionStart, descriptionEnd);
+    }
+
+    /**
+     * Part of an additional image name between "_" and the extension, empty if there is none.
+     */
+    public String getSuffix() {
+        return name.substring(suffixStart, dot);
+    }
+
+    private boolean isExtension(String extension) {
+        return name.length() - dot - 1 == extension.length() && name.regionMatches(true, dot + 1, extension, 0, extension.length());
+    }
+}
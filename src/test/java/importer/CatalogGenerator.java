@@ -0,0 +1,187 @@
+package importer;
+
+import config.SettingsLoader;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Writes a synthetic catalog: nested category folders with "SKU weight x description.jpg" product files,
+ * "SKU_n.jpg" additional images, names.txt and settings.properties. The same seed and sizes always give the
+ * same tree. Image files contain random bytes, not real pictures, so the catalog must not be exported with
+ * image_max_size. File names contain Cyrillic words unless the file system encoding of the JVM cannot
+ * represent them, as under the POSIX locale.
+ */
+public class CatalogGenerator {
+
+    private static final String[] CYRILLIC_WORDS = {
+            "Pizza", "Salad", "Soup", "Cake", "Bread", "Cheese", "Tea", "Coffee", "Juice", "Pasta",
+            "Фирменный", "Домашний", "Сырный", "Острый", "Сладкий", "Лёгкий", "Большой", "Мини", "Classic", "Special"
+    };
+    private static final String[] ASCII_WORDS = {
+            "Pizza", "Salad", "Soup", "Cake", "Bread", "Cheese", "Tea", "Coffee", "Juice", "Pasta",
+            "Signature", "Homemade", "Cheesy", "Spicy", "Sweet", "Light", "Large", "Mini", "Classic", "Special"
+    };
+    private static final String[] WORDS = canEncodeFileNames(CYRILLIC_WORDS) ? CYRILLIC_WORDS : ASCII_WORDS;
+    private static final int PRODUCTS_PER_FOLDER = 40;
+
+    private final long seed;
+    private int products = 1000;
+    private int maxAdditionalImages = 2;
+    private int maxDepth = 3;
+    private int imageBytes = 512;
+    private final Map<String, String> settings = new LinkedHashMap<>();
+    private int fileCount;
+
+    public CatalogGenerator(long seed) {
+        this.seed = seed;
+        settings.put(SettingsLoader.KEY_URL_PREFIX, "https://example.com/images/");
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CatalogGenerator <folder> <products> [seed]");
+            return;
+        }
+        CatalogGenerator generator = new CatalogGenerator(args.length > 2 ? Long.parseLong(args[2]) : 1L);
+        generator.setProducts(Integer.parseInt(args[1]));
+        Path catalog = generator.generate(Paths.get(args[0]));
+        System.out.println(generator.getFileCount() + " files written to " + catalog);
+    }
+
+    public void setProducts(int products) {
+        this.products = products;
+    }
+
+    /**
+     * Every product gets between 0 and this many additional images, 1 on average for the default of 2.
+     */
+    public void setMaxAdditionalImages(int maxAdditionalImages) {
+        this.maxAdditionalImages = maxAdditionalImages;
+    }
+
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    public void setImageBytes(int imageBytes) {
+        this.imageBytes = imageBytes;
+    }
+
+    public void setSetting(String key, String value) {
+        settings.put(key, value);
+    }
+
+    /**
+     * Number of image files written by the last {@link #generate(Path)}, product files and additional images.
+     */
+    public int getFileCount() {
+        return fileCount;
+    }
+
+    /**
+     * Creates the folder "catalog" in the given folder and returns it.
+     */
+    public Path generate(Path directory) throws IOException {
+        Random random = new Random(seed);
+        Path catalog = directory.resolve("catalog");
+        Files.createDirectories(catalog);
+        fileCount = 0;
+
+        List<Path> folders = createFolders(catalog, random);
+        Map<String, String> names = new LinkedHashMap<>();
+        byte[] content = new byte[imageBytes];
+        for (int i = 0; i < products; i++) {
+            Path folder = folders.get(random.nextInt(folders.size()));
+            String sku = sku(i);
+            String weight = random.nextInt(1000) + (random.nextBoolean() ? "," : ".") + random.nextInt(10);
+            String extension = random.nextInt(10) == 0 ? ".png" : ".jpg";
+            writeImage(folder.resolve(sku + " " + weight + " x " + description(random) + extension), content, random);
+            int additionalImages = random.nextInt(maxAdditionalImages + 1);
+            for (int n = 1; n <= additionalImages; n++) {
+                writeImage(folder.resolve(sku + "_" + n + ".jpg"), content, random);
+            }
+            names.putIfAbsent(sku.substring(0, 4), WORDS[random.nextInt(WORDS.length)] + " " + sku.substring(0, 4));
+        }
+
+        StringBuilder lines = new StringBuilder();
+        names.forEach((prefix, name) -> lines.append(prefix).append(';').append(name).append('\n'));
+        Files.write(catalog.resolve(Importer.NAMES_FILE), lines.toString().getBytes(StandardCharsets.UTF_8));
+
+        Properties properties = new Properties();
+        properties.putAll(settings);
+        try (OutputStream output = Files.newOutputStream(catalog.resolve(SettingsLoader.FILE_NAME))) {
+            properties.store(output, "Generated by CatalogGenerator");
+        }
+        return catalog;
+    }
+
+    /**
+     * SKUs look like "AB12-000345": two letters and two digits that names.txt maps to a name, then a number.
+     */
+    public static String sku(int i) {
+        return "" + (char) ('A' + i % 26) + (char) ('A' + i / 26 % 26) + String.format("%02d-%06d", i / 676 % 100, i);
+    }
+
+    private List<Path> createFolders(Path catalog, Random random) throws IOException {
+        int count = Math.max(1, products / PRODUCTS_PER_FOLDER);
+        List<Path> folders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Path folder = catalog;
+            int depth = 1 + random.nextInt(Math.max(1, maxDepth));
+            for (int level = 0; level < depth; level++) {
+                // Few names on the upper levels, so that folders share their parents.
+                int choices = Math.min(WORDS.length, 3 + level * 6);
+                folder = folder.resolve(WORDS[random.nextInt(choices)] + " " + (level + 1));
+            }
+            Files.createDirectories(folder);
+            if (random.nextInt(10) == 0) {
+                // Explorer leaves these behind; the import has to skip them.
+                Files.write(folder.resolve("Thumbs.db"), new byte[16]);
+            }
+            folders.add(folder);
+        }
+        return folders;
+    }
+
+    private static boolean canEncodeFileNames(String[] words) {
+        String encoding = System.getProperty("sun.jnu.encoding");
+        try {
+            CharsetEncoder encoder = Charset.forName(encoding).newEncoder();
+            return Arrays.stream(words).allMatch(encoder::canEncode);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void writeImage(Path file, byte[] content, Random random) throws IOException {
+        random.nextBytes(content);
+        Files.write(file, content);
+        fileCount++;
+    }
+
+    private static String description(Random random) {
+        StringBuilder description = new StringBuilder();
+        int words = 1 + random.nextInt(4);
+        for (int i = 0; i < words; i++) {
+            if (i != 0) {
+                description.append(' ');
+            }
+            description.append(WORDS[random.nextInt(WORDS.length)].toLowerCase());
+        }
+        return description.toString();
+    }
+}
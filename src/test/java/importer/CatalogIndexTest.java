@@ -0,0 +1,63 @@
+package importer;
+
+import config.SettingsLoader;
+import metrics.MetricRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import printer.Level;
+import printer.SimplePrinter;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CatalogIndexTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void secondLoadReusesEveryFolder() throws Exception {
+        CatalogGenerator generator = new CatalogGenerator(1L);
+        generator.setProducts(200);
+        Path catalog = generator.generate(directory);
+        // Folders changed in the last seconds are never trusted, make the generated ones old.
+        FileTime old = FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1));
+        List<Path> folders;
+        try (Stream<Path> files = Files.walk(catalog)) {
+            folders = files.filter(Files::isDirectory).collect(Collectors.toList());
+        }
+        for (Path folder : folders) {
+            Files.setLastModifiedTime(folder, old);
+        }
+
+        SimplePrinter printer = new SimplePrinter();
+        printer.setLevel(Level.WARN);
+        Importer importer = new Importer(printer);
+        SettingsLoader settings = new SettingsLoader();
+        importer.setCatalogLocation(catalog);
+        settings.load(catalog);
+        importer.applySettings(settings);
+        importer.setScanMode(ExecutionMode.PARALLEL);
+        importer.setCatalogIndex(true);
+
+        importer.loadProducts();
+        assertTrue(Files.exists(importer.getOutputDirectory().resolve(CatalogIndex.FILE_NAME)));
+        assertFalse(Files.exists(catalog.resolve(CatalogIndex.FILE_NAME)));
+        assertEquals(old, Files.getLastModifiedTime(catalog));
+
+        MetricRegistry.Snapshot before = MetricRegistry.getDefault().snapshot();
+        importer.loadProducts();
+        MetricRegistry.Snapshot loaded = MetricRegistry.getDefault().snapshot().since(before);
+        assertEquals((long) folders.size(), loaded.getCounters().get("scan.directories"));
+        assertEquals((long) folders.size(), loaded.getCounters().get("scan.directories_reused"));
+    }
+}
@@ -0,0 +1,43 @@
+package importer;
+
+import entity.Product;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CatalogValidatorTest {
+
+    @Test
+    public void skusWithDotsNeedTheirOwnImage() {
+        Product first = product("AB.1");
+        Product second = product("AB.2");
+        List<Path> images = Collections.singletonList(Paths.get("images", "AB.1.jpg"));
+
+        ValidationReport report = new CatalogValidator().validateImages(Arrays.asList(first, second), images);
+
+        assertEquals(Collections.singletonList(second), report.get(ValidationReport.Problem.MISSING_IMAGE));
+    }
+
+    @Test
+    public void imageNamesIgnoreCase() {
+        Product product = product("ab.1");
+        List<Path> images = Collections.singletonList(Paths.get("images", "AB.1.JPG"));
+
+        ValidationReport report = new CatalogValidator().validateImages(Collections.singletonList(product), images);
+
+        assertEquals(Collections.emptyList(), report.get(ValidationReport.Problem.MISSING_IMAGE));
+    }
+
+    private static Product product(String sku) {
+        Product product = new Product();
+        product.setSKU(sku);
+        product.setFile(Paths.get("catalog", sku + " 1 x photo.jpg"));
+        return product;
+    }
+}
@@ -0,0 +1,36 @@
+package importer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class CopyStrategyTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void transferAfterLinkKeepsSource() throws IOException {
+        byte[] photo = new byte[100_000];
+        new Random(1).nextBytes(photo);
+        Path source = directory.resolve("AB-1 1 x photo.jpg");
+        Path target = directory.resolve("AB-1.jpg");
+        Files.write(source, photo);
+
+        CopyMethod.LINK.createStrategy().copy(source, target);
+        CopyMethod.TRANSFER.createStrategy().copy(source, target);
+        assertArrayEquals(photo, Files.readAllBytes(source));
+        assertArrayEquals(photo, Files.readAllBytes(target));
+
+        CopyMethod.LINK.createStrategy().copy(source, target);
+        CopyMethod.COPY.createStrategy().copy(source, target);
+        assertArrayEquals(photo, Files.readAllBytes(source));
+        assertArrayEquals(photo, Files.readAllBytes(target));
+    }
+}
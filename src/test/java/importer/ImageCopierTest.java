@@ -0,0 +1,82 @@
+package importer;
+
+import entity.Product;
+import listener.ProgressListener;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import printer.SimplePrinter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ImageCopierTest {
+
+    private static final int PRODUCTS = 200;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void parallelCopyStopsWhenCancelled() throws Exception {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setSKU(CatalogGenerator.sku(i));
+            product.setFile(Files.write(directory.resolve(product.getSKU() + " 1 x photo.jpg"), new byte[64]));
+            products.add(product);
+        }
+        AtomicInteger started = new AtomicInteger();
+        ImageCopier copier = new ImageCopier(new SimplePrinter(), ExecutionMode.PARALLEL, 4);
+        copier.setCopyStrategy((source, target) -> {
+            started.incrementAndGet();
+            Files.copy(source, target);
+        });
+        copier.setProgressListener(new ProgressListener() {
+            @Override
+            public void progress(long done, long total) {
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return started.get() >= 10;
+            }
+        });
+
+        Path images = directory.resolve("images");
+        assertThrows(CancellationException.class, () -> copier.copy(products, images));
+        assertEquals(0, copier.getFailed(), "Cancelled copies must not be counted as failures");
+        try (Stream<Path> files = Files.list(images)) {
+            assertTrue(files.count() < PRODUCTS);
+        }
+    }
+
+    @Test
+    public void sequentialCopyStopsWhenCancelled() throws IOException {
+        Product product = new Product();
+        product.setSKU("AB-1");
+        product.setFile(Files.write(directory.resolve("AB-1 1 x photo.jpg"), new byte[64]));
+        ImageCopier copier = new ImageCopier(new SimplePrinter(), ExecutionMode.SEQUENTIAL, 1);
+        copier.setProgressListener(new ProgressListener() {
+            @Override
+            public void progress(long done, long total) {
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return true;
+            }
+        });
+
+        assertThrows(CancellationException.class, () -> copier.copy(List.of(product), directory.resolve("images")));
+    }
+}
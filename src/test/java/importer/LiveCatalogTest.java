@@ -0,0 +1,65 @@
+package importer;
+
+import config.SettingsLoader;
+import entity.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import printer.Level;
+import printer.SimplePrinter;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LiveCatalogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void addedFilesKeepScanOrder() throws Exception {
+        CatalogGenerator generator = new CatalogGenerator(1L);
+        generator.setProducts(300);
+        Path catalog = generator.generate(directory);
+        Importer importer = load(catalog);
+
+        List<Product> products = importer.getProducts();
+        Product existing = products.get(products.size() / 2);
+        List<Path> oldImages = existing.getAdditionalImages();
+        List<Path> oldCopy = List.copyOf(oldImages);
+        Path folder = existing.getFile().getParent();
+        Path product = Files.write(folder.resolve("ZZ99-999999 1.5 x live product.jpg"), new byte[16]);
+        Path first = Files.write(products.get(0).getFile().resolveSibling("AA00-000001 2 x first folder.jpg"), new byte[16]);
+        Path image = Files.write(folder.resolve(existing.getSKU() + "_9.jpg"), new byte[16]);
+
+        importer.applyChanges(Arrays.asList(product, first, image));
+
+        assertEquals(files(load(catalog).getProducts()), files(importer.getProducts()));
+        assertEquals(oldCopy, oldImages);
+        assertTrue(existing.getAdditionalImages().contains(image));
+        assertFalse(oldImages.contains(image));
+    }
+
+    private static Importer load(Path catalog) throws Exception {
+        SimplePrinter printer = new SimplePrinter();
+        printer.setLevel(Level.ERROR);
+        Importer importer = new Importer(printer);
+        SettingsLoader settings = new SettingsLoader();
+        importer.setCatalogLocation(catalog);
+        settings.load(catalog);
+        importer.applySettings(settings);
+        importer.setCatalogIndex(false);
+        importer.loadProducts();
+        return importer;
+    }
+
+    private static List<Path> files(List<Product> products) {
+        return products.stream().map(Product::getFile).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,154 @@
+package importer;
+
+import config.SettingsLoader;
+import entity.Product;
+import listener.ProgressListener;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockftpserver.fake.FakeFtpServer;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.filesystem.DirectoryEntry;
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
+import printer.Level;
+import printer.SimplePrinter;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs load, csv, images and upload on a generated catalog and fails when the run is slower or needs more
+ * heap than its budget. It is skipped unless {@code scale=true} is set. Sizes and budgets are system
+ * properties, for example
+ * <pre>
+ * mvn test -Dtest=ScaleTest -Dscale=true -Dscale.products=500000 -Dscale.upload=false -Dscale.budget.seconds=300 -DargLine=-Xmx4g
+ * </pre>
+ * The catalog has about twice as many files as products. The fake FTP server keeps uploaded files in memory
+ * and needs tens of milliseconds per file, so large runs should turn the upload off.
+ */
+public class ScaleTest {
+
+    private static final boolean ENABLED = Boolean.getBoolean("scale");
+    private static final int PRODUCTS = Integer.getInteger("scale.products", 500);
+    private static final long SEED = Long.getLong("scale.seed", 1L);
+    private static final boolean UPLOAD = Boolean.parseBoolean(System.getProperty("scale.upload", "true"));
+    private static final long BUDGET_MILLIS = TimeUnit.SECONDS.toMillis(Long.getLong("scale.budget.seconds", 60L));
+    private static final long BUDGET_HEAP = Long.getLong("scale.budget.heapMb", 256L) * 1024 * 1024;
+
+    @TempDir
+    Path directory;
+
+    private final Map<String, Long> timings = new LinkedHashMap<>();
+
+    @Test
+    public void exportWithinBudget() throws Exception {
+        assumeTrue(ENABLED, "Scale test is run with -Dscale=true");
+        FakeFtpServer server = null;
+        CatalogGenerator generator = new CatalogGenerator(SEED);
+        generator.setProducts(PRODUCTS);
+        if (UPLOAD) {
+            server = startServer();
+            generator.setSetting(SettingsLoader.KEY_FTP_URL, "localhost:" + server.getServerControlPort());
+            generator.setSetting(SettingsLoader.KEY_USERNAME, "importer");
+            generator.setSetting(SettingsLoader.KEY_PASSWORD, "secret");
+        }
+        Path catalog = generator.generate(directory);
+
+        SimplePrinter printer = new SimplePrinter();
+        printer.setLevel(Level.WARN);
+        Importer importer = new Importer(printer);
+        SettingsLoader settings = new SettingsLoader();
+        importer.setCatalogLocation(catalog);
+        settings.load(catalog);
+        importer.applySettings(settings);
+
+        resetPeakHeap();
+        long start = System.nanoTime();
+        try {
+            stage("load", () -> importer.loadProducts());
+            stage("csv", () -> importer.saveProductsToCSV());
+            stage("images", () -> assertFalse(importer.saveImages(ProgressListener.NONE).hasProblems()));
+            if (UPLOAD) {
+                UploadJob job = new UploadJob(printer, importer.getImagesDirectory(),
+                        settings.getString(SettingsLoader.KEY_FTP_URL),
+                        settings.getString(SettingsLoader.KEY_USERNAME),
+                        settings.getString(SettingsLoader.KEY_PASSWORD));
+                stage("upload", () -> job.run(() -> false));
+                assertEquals(PRODUCTS, job.getUploaded());
+                assertEquals(0, job.getFailed());
+            }
+        } finally {
+            if (server != null) {
+                server.stop();
+            }
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long heap = peakHeap();
+
+        System.out.println("Scale test: " + PRODUCTS + " products, " + generator.getFileCount() + " image files");
+        timings.forEach((stage, time) -> System.out.println("  " + stage + ": " + time + " ms"));
+        System.out.println("  total: " + millis + " ms, peak heap " + heap / (1024 * 1024) + " MB");
+
+        List<Product> products = importer.getProducts();
+        assertEquals(PRODUCTS, products.size());
+        assertEquals(generator.getFileCount() - PRODUCTS, products.stream().mapToInt(product -> product.getAdditionalImages().size()).sum());
+        assertEquals(PRODUCTS + 1, Files.readAllLines(importer.getOutputDirectory().resolve("products.csv")).size());
+        try (Stream<Path> images = Files.list(importer.getImagesDirectory())) {
+            assertEquals(PRODUCTS, images.count());
+        }
+        assertTrue(millis <= BUDGET_MILLIS, "Took " + millis + " ms, the budget is " + BUDGET_MILLIS + " ms");
+        assertTrue(heap <= BUDGET_HEAP, "Peak heap " + heap / (1024 * 1024) + " MB, the budget is " + BUDGET_HEAP / (1024 * 1024) + " MB");
+    }
+
+    private void stage(String name, Stage stage) throws Exception {
+        long start = System.nanoTime();
+        stage.run();
+        timings.put(name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static FakeFtpServer startServer() {
+        FakeFtpServer server = new FakeFtpServer();
+        server.setServerControlPort(0);
+        UnixFakeFileSystem fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry("/images"));
+        server.setFileSystem(fileSystem);
+        server.addUserAccount(new UserAccount("importer", "secret", "/images"));
+        server.start();
+        while (!server.isStarted()) {
+            Thread.onSpinWait();
+        }
+        return server;
+    }
+
+    private static void resetPeakHeap() {
+        System.gc();
+        heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    /**
+     * Sum of the peaks of all heap pools. The pools peak at different moments, so this is an upper bound.
+     */
+    private static long peakHeap() {
+        return heapPools().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+    }
+
+    private static Stream<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream().filter(pool -> pool.getType() == MemoryType.HEAP);
+    }
+
+    private interface Stage {
+        void run() throws Exception;
+    }
+}
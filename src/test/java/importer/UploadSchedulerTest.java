@@ -0,0 +1,97 @@
+package importer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockftpserver.core.command.Command;
+import org.mockftpserver.core.command.CommandNames;
+import org.mockftpserver.core.session.Session;
+import org.mockftpserver.fake.FakeFtpServer;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.command.StorCommandHandler;
+import org.mockftpserver.fake.filesystem.DirectoryEntry;
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
+import printer.Level;
+import printer.SimplePrinter;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UploadSchedulerTest {
+
+    @TempDir
+    Path directory;
+
+    private FakeFtpServer server;
+    private UnixFakeFileSystem fileSystem;
+    private final FailingStorCommandHandler storHandler = new FailingStorCommandHandler(1);
+
+    @BeforeEach
+    public void startServer() {
+        server = new FakeFtpServer();
+        server.setServerControlPort(0);
+        fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry("/images"));
+        server.setFileSystem(fileSystem);
+        server.addUserAccount(new UserAccount("importer", "secret", "/images"));
+        server.setCommandHandler(CommandNames.STOR, storHandler);
+        server.start();
+        while (!server.isStarted()) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    public void transientReplyIsRetriedOnNewSession() throws Exception {
+        Path file = Files.write(directory.resolve("AB-1.jpg"), new byte[1024]);
+        FtpConnectionFactory connectionFactory =
+                new FtpConnectionFactory("localhost:" + server.getServerControlPort(), "importer", "secret");
+        SimplePrinter printer = new SimplePrinter();
+        printer.setLevel(Level.WARN);
+        UploadScheduler scheduler = new UploadScheduler(connectionFactory, 1, UploadScheduler.DEFAULT_RETRIES, printer);
+
+        scheduler.upload(List.of(file), () -> false);
+
+        assertEquals(1, scheduler.getUploaded());
+        assertEquals(0, scheduler.getFailed());
+        assertTrue(fileSystem.exists("/images/AB-1.jpg"));
+        assertEquals(2, storHandler.sessions.size());
+        assertNotSame(storHandler.sessions.get(0), storHandler.sessions.get(1));
+    }
+
+    /**
+     * Replies "451 Local error" to the first {@code failures} STOR commands, then stores as usual.
+     */
+    private static class FailingStorCommandHandler extends StorCommandHandler {
+
+        private final List<Session> sessions = new ArrayList<>();
+        private int failures;
+
+        FailingStorCommandHandler(int failures) {
+            this.failures = failures;
+        }
+
+        @Override
+        protected synchronized void handle(Command command, Session session) {
+            sessions.add(session);
+            if (failures > 0) {
+                failures--;
+                session.sendReply(451, "Requested action aborted: local error in processing.");
+                return;
+            }
+            super.handle(command, session);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package importer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockftpserver.fake.FakeFtpServer;
+import org.mockftpserver.fake.UserAccount;
+import org.mockftpserver.fake.filesystem.DirectoryEntry;
+import org.mockftpserver.fake.filesystem.UnixFakeFileSystem;
+import printer.Level;
+import printer.SimplePrinter;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Uploads the same files to an embedded FTP server with 1, 4 and 8 sessions and prints files per second.
+ * It is skipped unless {@code scale=true} is set, for example
+ * <pre>
+ * mvn test -Dtest=UploadThroughputTest -Dscale=true -Dscale.upload.files=500 -Dscale.upload.connections=1,2,4,8,16
+ * </pre>
+ * The fake server answers from memory, so the numbers show how well the sessions hide per-file round trips,
+ * not what a real hosting provider achieves.
+ */
+public class UploadThroughputTest {
+
+    private static final boolean ENABLED = Boolean.getBoolean("scale");
+    private static final int FILES = Integer.getInteger("scale.upload.files", 200);
+    private static final String CONNECTIONS = System.getProperty("scale.upload.connections", "1,4,8");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void filesPerSecond() throws Exception {
+        assumeTrue(ENABLED, "Upload throughput test is run with -Dscale=true");
+        List<Path> files = new ArrayList<>(FILES);
+        byte[] content = new byte[4096];
+        Random random = new Random(1);
+        for (int i = 0; i < FILES; i++) {
+            random.nextBytes(content);
+            files.add(Files.write(directory.resolve(CatalogGenerator.sku(i) + ".jpg"), content));
+        }
+        SimplePrinter printer = new SimplePrinter();
+        printer.setLevel(Level.WARN);
+
+        Map<Integer, Double> rates = new LinkedHashMap<>();
+        for (String value : CONNECTIONS.split(",")) {
+            int connections = Integer.parseInt(value.trim());
+            FakeFtpServer server = startServer();
+            try {
+                FtpConnectionFactory connectionFactory =
+                        new FtpConnectionFactory("localhost:" + server.getServerControlPort(), "importer", "secret");
+                UploadScheduler scheduler = new UploadScheduler(connectionFactory, connections, UploadScheduler.DEFAULT_RETRIES, printer);
+                long start = System.nanoTime();
+                scheduler.upload(files, () -> false);
+                long nanos = System.nanoTime() - start;
+                assertEquals(FILES, scheduler.getUploaded());
+                assertEquals(0, scheduler.getFailed());
+                rates.put(connections, FILES * (double) TimeUnit.SECONDS.toNanos(1) / nanos);
+            } finally {
+                server.stop();
+            }
+        }
+
+        System.out.println("Upload throughput: " + FILES + " files of " + content.length + " bytes");
+        rates.forEach((connections, rate) -> System.out.printf("  %d connections: %.1f files/s%n", connections, rate));
+    }
+
+    private static FakeFtpServer startServer() {
+        FakeFtpServer server = new FakeFtpServer();
+        server.setServerControlPort(0);
+        UnixFakeFileSystem fileSystem = new UnixFakeFileSystem();
+        fileSystem.add(new DirectoryEntry("/images"));
+        server.setFileSystem(fileSystem);
+        server.addUserAccount(new UserAccount("importer", "secret", "/images"));
+        server.start();
+        while (!server.isStarted()) {
+            Thread.onSpinWait();
+        }
+        return server;
+    }
+}
@@ -0,0 +1,52 @@
+package metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HistogramTest {
+
+    @Test
+    public void bucketsCoverEveryValue() {
+        Random random = new Random(1);
+        for (int i = 0; i < 1_000_000; i++) {
+            long value = random.nextLong() >>> (1 + random.nextInt(63));
+            int bucket = Histogram.bucket(value);
+            assertTrue(value <= Histogram.upperBound(bucket), "value " + value);
+            assertTrue(bucket == 0 || value > Histogram.upperBound(bucket - 1), "value " + value);
+        }
+        assertEquals(Long.MAX_VALUE, Histogram.upperBound(Histogram.bucket(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void percentilesWithinBucketError() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(10_000, snapshot.getCount());
+        assertEquals(5000.5, snapshot.getMean(), 1e-9);
+        assertEquals(10_000, snapshot.getMax());
+        assertEquals(5000, snapshot.getPercentile(0.5), 5000 / 16.0);
+        assertEquals(9900, snapshot.getPercentile(0.99), 9900 / 16.0);
+    }
+
+    @Test
+    public void snapshotDifference() {
+        Histogram histogram = new Histogram();
+        histogram.record(1_000_000);
+        Histogram.Snapshot before = histogram.snapshot();
+        for (int i = 0; i < 100; i++) {
+            histogram.record(10);
+        }
+        Histogram.Snapshot delta = histogram.snapshot().since(before);
+        assertEquals(100, delta.getCount());
+        assertEquals(1000, delta.getSum());
+        assertEquals(10, delta.getMax());
+        assertEquals(10, delta.getPercentile(0.99));
+    }
+}
@@ -0,0 +1,44 @@
+package metrics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RunReportTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void concurrentJobsKeepTheirOwnMetrics() throws IOException {
+        MetricRegistry registry = new MetricRegistry();
+        RunReport csv = RunReport.start("csv", registry, "csv.");
+        RunReport images = RunReport.start("images", registry, "copy.");
+
+        registry.counter("csv.rows").add(10);
+        registry.timer("job.csv").record(1_000_000);
+        registry.counter("copy.copied").add(5);
+        registry.timer("copy.file").record(2_000_000);
+
+        String csvReport = read(csv.finish(directory, "OK"));
+        String imagesReport = read(images.finish(directory, "OK"));
+
+        assertTrue(csvReport.contains("\"csv.rows\": 10"));
+        assertTrue(csvReport.contains("\"job.csv\""));
+        assertFalse(csvReport.contains("copy."));
+        assertTrue(imagesReport.contains("\"copy.copied\": 5"));
+        assertTrue(imagesReport.contains("\"copy.file\""));
+        assertFalse(imagesReport.contains("csv."));
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
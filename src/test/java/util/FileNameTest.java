@@ -0,0 +1,120 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FileNameTest {
+
+    private static final String ALPHABET = "aB9-_,. xЖ";
+    private static final String[] EXTENSIONS = {"jpg", "JPG", "png", "jpeg", "txt", "db", ""};
+
+    @Test
+    public void productName() {
+        FileName name = FileName.parse("AB-100 1,5 x Пицца с сыром.jpg");
+        assertTrue(name.isImage());
+        assertTrue(name.isProduct());
+        assertEquals("AB-100", name.getSku());
+        assertEquals("1.5", name.getWeight());
+        assertEquals("Пицца с сыром", name.getDescription());
+        assertEquals("jpg", name.getExtension());
+    }
+
+    @Test
+    public void additionalImageNames() {
+        FileName withSuffix = FileName.parse("AB-100_2.PNG");
+        assertTrue(withSuffix.isImage());
+        assertFalse(withSuffix.isProduct());
+        assertEquals("AB-100", withSuffix.getSku());
+        assertEquals("2", withSuffix.getSuffix());
+        assertEquals("png", withSuffix.getExtension());
+
+        FileName plain = FileName.parse("AB-100.jpeg");
+        assertEquals("AB-100", plain.getSku());
+        assertEquals("", plain.getSuffix());
+    }
+
+    @Test
+    public void dotsBeforeTheExtension() {
+        FileName name = FileName.parse("AB-100 0.5 x Sauce 0.33l.jpg");
+        assertTrue(name.isImage());
+        assertEquals("0.5", name.getWeight());
+        assertEquals("Sauce 0.33l", name.getDescription());
+        assertEquals("jpg", name.getExtension());
+    }
+
+    @Test
+    public void namesWithoutExtension() {
+        FileName name = FileName.parse("Thumbs");
+        assertFalse(name.hasExtension());
+        assertFalse(name.isImage());
+        assertEquals("", name.getExtension());
+    }
+
+    /**
+     * Random names with a single dot must be parsed exactly like the split based parser did.
+     */
+    @Test
+    public void sameAsSplitParser() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            StringBuilder builder = new StringBuilder();
+            int length = random.nextInt(24);
+            for (int j = 0; j < length; j++) {
+                char c = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+                if (c != '.') {
+                    builder.append(c);
+                }
+            }
+            String extension = EXTENSIONS[random.nextInt(EXTENSIONS.length)];
+            String text = builder.append('.').append(extension).toString();
+
+            FileName name = FileName.parse(text);
+            String[] legacy = legacyParse(text);
+            if (legacy == null) {
+                assertFalse(name.isImage(), text);
+                continue;
+            }
+            assertTrue(name.isImage(), text);
+            assertEquals(legacy[0], name.getSku(), text);
+            if (legacy.length > 1) {
+                assertTrue(name.isProduct(), text);
+                // The old parser kept the extension in the weight of "SKU weight.jpg".
+                if (legacy[1].indexOf('.') < 0) {
+                    assertEquals(legacy[1].replace(",", "."), name.getWeight(), text);
+                }
+                assertEquals(legacy[2], name.getDescription(), text);
+            } else {
+                assertFalse(name.isProduct(), text);
+            }
+        }
+    }
+
+    private static String[] legacyParse(String fileName) {
+        String[] parts = fileName.split("\\.");
+        if (parts.length < 2) {
+            // The old parser failed on names ending with a dot.
+            return null;
+        }
+        String fileExtension = parts[1];
+        if (!Set.of("jpg", "png", "jpeg").contains(fileExtension.toLowerCase())) {
+            return null;
+        }
+        if (fileName.split(" ").length <= 1) {
+            return new String[]{fileName.contains("_") ? fileName.split("_")[0] : fileName.split("\\.")[0]};
+        }
+        List<String> info = Arrays.asList(fileName.split(" "));
+        StringBuilder description = new StringBuilder();
+        for (int i = 3; i < info.size(); i++) {
+            description.append(info.get(i)).append(" ");
+        }
+        return new String[]{info.get(0), info.get(1), description.toString().split("\\.")[0].trim()};
+    }
+}